@@ -2,6 +2,7 @@ plugins {
     id("java")
     id("io.freefair.lombok") version "9.0.0"
     id("xyz.jpenilla.run-paper") version "3.0.2"
+    id("me.champeau.jmh") version "0.7.3"
 }
 
 group = "com.bruhdows"
@@ -16,18 +17,42 @@ repositories {
         name = "papermc"
         url = uri("https://repo.papermc.io/repository/maven-public/")
     }
+    maven {
+        name = "codemc"
+        url = uri("https://repo.codemc.io/repository/maven-releases/")
+    }
 }
 
 dependencies {
     compileOnly("io.papermc.paper:paper-api:1.21.8-R0.1-SNAPSHOT")
+    compileOnly("com.github.retrooper:packetevents-spigot:2.9.5")
+
+    testImplementation("io.papermc.paper:paper-api:1.21.8-R0.1-SNAPSHOT")
+    testImplementation(platform("org.junit:junit-bom:5.11.4"))
+    testImplementation("org.junit.jupiter:junit-jupiter")
+    testRuntimeOnly("org.junit.platform:junit-platform-launcher")
 }
 
 java {
     toolchain.languageVersion.set(JavaLanguageVersion.of(21))
 }
 
+jmh {
+    benchmarkMode.set(listOf("avgt"))
+    timeUnit.set("ns")
+    profilers.set(listOf("gc"))
+    fork.set(1)
+    warmupIterations.set(3)
+    iterations.set(5)
+    resultFormat.set("JSON")
+}
+
 tasks {
     runServer {
         minecraftVersion("1.21.8")
     }
+
+    test {
+        useJUnitPlatform()
+    }
 }
\ No newline at end of file
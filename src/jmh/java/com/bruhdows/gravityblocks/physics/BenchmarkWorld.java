@@ -0,0 +1,27 @@
+package com.bruhdows.gravityblocks.physics;
+
+import java.util.UUID;
+
+final class BenchmarkWorld {
+
+    static final UUID WORLD = new UUID(0, 0);
+    static final SolidityView FLOOR = (x, y, z) -> y < 0;
+    static final int LAYERS = 4;
+    static final double SPACING = 1.1;
+
+    private BenchmarkWorld() {
+    }
+
+    static int footprint(int count) {
+        return Math.max(1, (int) Math.ceil(Math.sqrt((double) count / LAYERS)));
+    }
+
+    static void populate(BodyStore store, int count) {
+        int side = footprint(count);
+        for (int i = 0; i < count; i++) {
+            int layer = i / (side * side);
+            int column = i % (side * side);
+            store.allocate(WORLD, (column % side) * SPACING, 0.5 + layer * 1.2, (column / side) * SPACING, 1.0);
+        }
+    }
+}
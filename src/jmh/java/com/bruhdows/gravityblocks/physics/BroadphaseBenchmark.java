@@ -0,0 +1,53 @@
+package com.bruhdows.gravityblocks.physics;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+@State(Scope.Benchmark)
+public class BroadphaseBenchmark {
+
+    private static final double JITTER = 0.6;
+
+    @Param({"10", "100", "1000", "10000"})
+    public int blocks;
+
+    private final SpatialHash grid = new SpatialHash(2.0);
+    private final SpatialHash.PairConsumer counter = (a, b) -> this.pairs++;
+    private BodyStore store;
+    private boolean shifted;
+    private int pairs;
+
+    @Setup
+    public void setup() {
+        store = new BodyStore(blocks);
+        BenchmarkWorld.populate(store, blocks);
+        for (int id = 0; id < blocks; id++) {
+            update(id, 0);
+        }
+    }
+
+    @Benchmark
+    public int updateAndPair() {
+        shifted = !shifted;
+        double offset = shifted ? JITTER : 0;
+        for (int id = 0; id < blocks; id++) {
+            update(id, offset);
+        }
+
+        pairs = 0;
+        for (int id = 0; id < blocks; id++) {
+            grid.forEachCandidate(id, counter);
+        }
+        return pairs;
+    }
+
+    private void update(int id, double offset) {
+        double x = store.getX(id) + offset;
+        double y = store.getY(id);
+        double z = store.getZ(id) + offset;
+        grid.update(id, x, y, z, x + 1, y + 1, z + 1);
+    }
+}
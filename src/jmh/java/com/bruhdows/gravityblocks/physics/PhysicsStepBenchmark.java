@@ -0,0 +1,54 @@
+package com.bruhdows.gravityblocks.physics;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@State(Scope.Benchmark)
+public class PhysicsStepBenchmark {
+
+    private static final int SETTLE_TICKS = 100;
+
+    @Param({"10", "100", "1000", "10000"})
+    public int blocks;
+
+    private PhysicsEngine engine;
+    private BodyStore store;
+    private PhysicsSnapshot snapshot;
+
+    @Setup
+    public void setup() {
+        engine = new PhysicsEngine(1);
+        store = new BodyStore(blocks);
+        BenchmarkWorld.populate(store, blocks);
+        snapshot = new PhysicsSnapshot(store, Map.of(BenchmarkWorld.WORLD, BenchmarkWorld.FLOOR),
+                store.drainRemovedIds(), new HashMap<>());
+
+        for (int tick = 0; tick < SETTLE_TICKS; tick++) {
+            tick();
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        engine.shutdown();
+    }
+
+    @Benchmark
+    public BodyStore tick() {
+        for (int index = 0; index < store.size(); index++) {
+            int id = store.idAt(index);
+            store.wake(id);
+            store.setStepTicks(id, 1);
+        }
+
+        engine.step(snapshot);
+        return store;
+    }
+}
@@ -0,0 +1,92 @@
+package com.bruhdows.gravityblocks.physics;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+@State(Scope.Benchmark)
+public class RaycastBenchmark {
+
+    private static final int RAYS = 64;
+    private static final double MAX_DISTANCE = 10.0;
+
+    @Param({"10", "100", "1000", "10000"})
+    public int blocks;
+
+    private final SpatialHash grid = new SpatialHash(2.0);
+    private final SpatialHash.RayVisitor visitor = this::visit;
+    private final double[] rays = new double[RAYS * 6];
+    private BodyStore store;
+    private int ray;
+    private int rayOffset;
+    private double closest;
+
+    @Setup
+    public void setup() {
+        store = new BodyStore(blocks);
+        BenchmarkWorld.populate(store, blocks);
+        for (int id = 0; id < blocks; id++) {
+            double x = store.getX(id);
+            double y = store.getY(id);
+            double z = store.getZ(id);
+            grid.update(id, x, y, z, x + 1, y + 1, z + 1);
+        }
+
+        double extent = BenchmarkWorld.footprint(blocks) * BenchmarkWorld.SPACING;
+        for (int i = 0; i < RAYS; i++) {
+            double angle = Math.PI * 2 * i / RAYS;
+            double directionX = Math.cos(angle);
+            double directionY = -0.3;
+            double directionZ = Math.sin(angle);
+            double length = Math.sqrt(directionX * directionX + directionY * directionY + directionZ * directionZ);
+
+            rays[i * 6] = extent / 2 - directionX * extent / 2;
+            rays[i * 6 + 1] = 6.0;
+            rays[i * 6 + 2] = extent / 2 - directionZ * extent / 2;
+            rays[i * 6 + 3] = directionX / length;
+            rays[i * 6 + 4] = directionY / length;
+            rays[i * 6 + 5] = directionZ / length;
+        }
+    }
+
+    @Benchmark
+    public double raycast() {
+        rayOffset = (ray++ % RAYS) * 6;
+        closest = MAX_DISTANCE;
+        grid.raycast(rays[rayOffset], rays[rayOffset + 1], rays[rayOffset + 2],
+                rays[rayOffset + 3], rays[rayOffset + 4], rays[rayOffset + 5], MAX_DISTANCE, visitor);
+        return closest;
+    }
+
+    private double visit(int id) {
+        int offset = rayOffset;
+        double near = 0;
+        double far = closest;
+        for (int axis = 0; axis < 3; axis++) {
+            double origin = rays[offset + axis];
+            double direction = rays[offset + 3 + axis];
+            double min = axis == 0 ? store.getX(id) : axis == 1 ? store.getY(id) : store.getZ(id);
+            double max = min + store.getSize(id);
+
+            if (direction == 0) {
+                if (origin < min || origin > max) {
+                    return closest;
+                }
+                continue;
+            }
+
+            double t1 = (min - origin) / direction;
+            double t2 = (max - origin) / direction;
+            near = Math.max(near, Math.min(t1, t2));
+            far = Math.min(far, Math.max(t1, t2));
+            if (near > far) {
+                return closest;
+            }
+        }
+
+        closest = near;
+        return closest;
+    }
+}
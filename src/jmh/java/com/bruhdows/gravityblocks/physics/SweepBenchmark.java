@@ -0,0 +1,50 @@
+package com.bruhdows.gravityblocks.physics;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+@State(Scope.Benchmark)
+public class SweepBenchmark {
+
+    @Param({"10", "100", "1000", "10000"})
+    public int blocks;
+
+    private final SweptAabb sweep = new SweptAabb();
+    private double[] start;
+    private double[] position;
+    private double[] velocity;
+
+    @Setup
+    public void setup() {
+        BodyStore store = new BodyStore(blocks);
+        BenchmarkWorld.populate(store, blocks);
+
+        start = new double[blocks * 3];
+        position = new double[blocks * 3];
+        velocity = new double[blocks * 3];
+        for (int id = 0; id < blocks; id++) {
+            start[id * 3] = store.getX(id);
+            start[id * 3 + 1] = store.getY(id);
+            start[id * 3 + 2] = store.getZ(id);
+            velocity[id * 3] = ((id * 7) % 11 - 5) * 0.05;
+            velocity[id * 3 + 1] = -0.8;
+            velocity[id * 3 + 2] = ((id * 13) % 11 - 5) * 0.05;
+        }
+    }
+
+    @Benchmark
+    public int sweepAll() {
+        System.arraycopy(start, 0, position, 0, start.length);
+
+        int hits = 0;
+        for (int id = 0; id < blocks; id++) {
+            int offset = id * 3;
+            hits += sweep.sweep(BenchmarkWorld.FLOOR, position, offset, 1.0,
+                    velocity[offset], velocity[offset + 1], velocity[offset + 2]);
+        }
+        return hits;
+    }
+}
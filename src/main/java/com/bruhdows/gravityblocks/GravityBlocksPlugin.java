@@ -2,8 +2,11 @@ package com.bruhdows.gravityblocks;
 
 import com.bruhdows.gravityblocks.command.GravityBlockCommand;
 import com.bruhdows.gravityblocks.listener.GravityStickListener;
+import com.bruhdows.gravityblocks.listener.WorldChangeListener;
 import com.bruhdows.gravityblocks.manager.GravityBlockManager;
 import com.bruhdows.gravityblocks.manager.GravityStickManager;
+import com.bruhdows.gravityblocks.manager.LocalBlockManager;
+import com.bruhdows.gravityblocks.manager.RegionBlockManager;
 import lombok.Getter;
 import org.bukkit.plugin.java.JavaPlugin;
 
@@ -17,18 +20,23 @@ public class GravityBlocksPlugin extends JavaPlugin {
 
     @Override
     public void onEnable() {
-        gravityBlockManager = new GravityBlockManager();
+        saveDefaultConfig();
+
+        String mode = getConfig().getString("scheduler.mode", "auto");
+        boolean regions = mode.equalsIgnoreCase("region") || mode.equalsIgnoreCase("auto") && RegionBlockManager.isRegionized();
+        gravityBlockManager = regions ? new RegionBlockManager(this) : new LocalBlockManager(this);
         gravityStickManager = new GravityStickManager(this);
 
         Objects.requireNonNull(getCommand("gravityblock")).setExecutor(new GravityBlockCommand(this));
 
         getServer().getPluginManager().registerEvents(new GravityStickListener(this), this);
-        getServer().getScheduler().runTaskTimer(this, () -> gravityBlockManager.tick(), 0L, 1L);
+        getServer().getPluginManager().registerEvents(new WorldChangeListener(this), this);
+        gravityBlockManager.start();
     }
 
     @Override
     public void onDisable() {
-        gravityBlockManager.cleanupAll();
+        gravityBlockManager.shutdown();
     }
 
 }
\ No newline at end of file
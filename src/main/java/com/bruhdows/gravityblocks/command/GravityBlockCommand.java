@@ -1,6 +1,9 @@
 package com.bruhdows.gravityblocks.command;
 
 import com.bruhdows.gravityblocks.GravityBlocksPlugin;
+import com.bruhdows.gravityblocks.manager.BulkSpawner;
+import com.bruhdows.gravityblocks.manager.GravityStickManager;
+import com.bruhdows.gravityblocks.manager.PhysicsMetrics;
 import com.bruhdows.gravityblocks.util.TextUtil;
 import org.bukkit.Location;
 import org.bukkit.Material;
@@ -17,6 +20,8 @@ import java.util.List;
 
 public record GravityBlockCommand(GravityBlocksPlugin plugin) implements CommandExecutor, TabCompleter {
 
+    private static final String CONVERT_PERMISSION = "gravityblocks.command.convert";
+
     @Override
     public boolean onCommand(@NotNull CommandSender sender, @NotNull Command command, @NotNull String label, String[] args) {
         if (!(sender instanceof Player player)) {
@@ -42,10 +47,26 @@ public record GravityBlockCommand(GravityBlocksPlugin plugin) implements Command
                 spawnBlock(player, args);
                 break;
 
+            case "convert":
+                if (!player.hasPermission(CONVERT_PERMISSION)) {
+                    TextUtil.sendMessage(player, "<red>You don't have permission to convert regions!");
+                    return true;
+                }
+                if (args.length < 7) {
+                    TextUtil.sendMessage(player, "<red>Usage: /gravityblock convert <x1> <y1> <z1> <x2> <y2> <z2>");
+                    return true;
+                }
+                convertRegion(player, args);
+                break;
+
             case "cleanup":
                 cleanup(player);
                 break;
 
+            case "stats":
+                sendStats(player);
+                break;
+
             default:
                 sendHelp(player);
                 break;
@@ -55,7 +76,9 @@ public record GravityBlockCommand(GravityBlocksPlugin plugin) implements Command
     }
 
     private void giveStick(Player player) {
-        player.getInventory().addItem(plugin.getGravityStickManager().createGravityStick());
+        GravityStickManager sticks = plugin.getGravityStickManager();
+        player.getInventory().addItem(sticks.createGravityStick());
+        sticks.invalidate(player);
         TextUtil.sendMessage(player, "<green>You received a Gravity Stick!");
     }
 
@@ -82,24 +105,90 @@ public record GravityBlockCommand(GravityBlocksPlugin plugin) implements Command
                 TextUtil.sendMessage(player, "<red>Invalid size! Must be a number.");
                 return;
             }
+
+            if (!(size > 0) || Double.isInfinite(size)) {
+                TextUtil.sendMessage(player, "<red>Invalid size! Must be greater than 0.");
+                return;
+            }
         }
 
         Location spawnLoc = player.getEyeLocation().add(player.getLocation().getDirection().multiply(3));
-        plugin.getGravityBlockManager().createGravityBlock(spawnLoc, material, size);
+        plugin.getGravityBlockManager().createGravityBlock(spawnLoc, material, size, player.getUniqueId());
 
         TextUtil.sendMessage(player, "<green>Spawned a " + material.name().toLowerCase() + " gravity block with size " + size + "!");
     }
 
+    private void convertRegion(Player player, String[] args) {
+        Location base = player.getLocation();
+        int[] corners = new int[6];
+        for (int i = 0; i < corners.length; i++) {
+            int origin = switch (i % 3) {
+                case 0 -> base.getBlockX();
+                case 1 -> base.getBlockY();
+                default -> base.getBlockZ();
+            };
+
+            try {
+                corners[i] = parseCoordinate(args[i + 1], origin);
+            } catch (NumberFormatException e) {
+                TextUtil.sendMessage(player, "<red>Invalid coordinate: " + args[i + 1]);
+                return;
+            }
+        }
+
+        BulkSpawner spawner = plugin.getGravityBlockManager().getBulkSpawner(player.getLocation());
+        boolean queued = spawner.convertRegion(player.getWorld(),
+                corners[0], corners[1], corners[2], corners[3], corners[4], corners[5], player.getUniqueId(),
+                count -> TextUtil.sendMessage(player, "<green>Converted " + count + " block(s) into gravity blocks!"));
+        if (!queued) {
+            TextUtil.sendMessage(player, "<red>That region is too large! The limit is " + spawner.getMaxRegionVolume() + " blocks.");
+            return;
+        }
+
+        TextUtil.sendMessage(player, "<yellow>Converting region into gravity blocks...");
+    }
+
+    private int parseCoordinate(String arg, int origin) {
+        if (arg.startsWith("~")) {
+            return arg.length() == 1 ? origin : origin + Integer.parseInt(arg.substring(1));
+        }
+        return Integer.parseInt(arg);
+    }
+
     private void cleanup(Player player) {
         int count = plugin.getGravityBlockManager().getBlockCount();
         plugin.getGravityBlockManager().cleanupAll();
         TextUtil.sendMessage(player, "<green>Cleaned up " + count + " gravity block(s)!");
     }
 
+    private void sendStats(Player player) {
+        PhysicsMetrics metrics = plugin.getGravityBlockManager().getMetrics(player.getLocation());
+        StringBuilder message = new StringBuilder("<gold><b>Gravity block stats</b> <gray>(last ")
+                .append(metrics.getSampleCount()).append(" steps, p50 / p95 / p99)");
+
+        for (PhysicsMetrics.Metric metric : PhysicsMetrics.Metric.values()) {
+            message.append("<br><yellow>").append(metric.getDisplayName()).append(": <white>");
+            if (metric.isTiming()) {
+                message.append(String.format("%.3f / %.3f / %.3f ms",
+                        metrics.percentile(metric, 0.5) / 1_000_000.0,
+                        metrics.percentile(metric, 0.95) / 1_000_000.0,
+                        metrics.percentile(metric, 0.99) / 1_000_000.0));
+            } else {
+                message.append(metrics.percentile(metric, 0.5)).append(" / ")
+                        .append(metrics.percentile(metric, 0.95)).append(" / ")
+                        .append(metrics.percentile(metric, 0.99));
+            }
+        }
+
+        TextUtil.sendMessage(player, message.toString());
+    }
+
     private void sendHelp(Player player) {
         TextUtil.sendMessage(player, "<yellow>/gravityblock stick <gray>- Get a gravity stick<br>" +
                 "<yellow>/gravityblock spawn <material> [size] <gray>- Spawn a gravity block<br>" +
-                "<yellow>/gravityblock cleanup <gray>- Remove all gravity blocks");
+                "<yellow>/gravityblock convert <x1> <y1> <z1> <x2> <y2> <z2> <gray>- Turn a region of blocks into gravity blocks<br>" +
+                "<yellow>/gravityblock cleanup <gray>- Remove all gravity blocks<br>" +
+                "<yellow>/gravityblock stats <gray>- Show physics timings and counters");
     }
 
     @Override
@@ -107,7 +196,10 @@ public record GravityBlockCommand(GravityBlocksPlugin plugin) implements Command
         List<String> completions = new ArrayList<>();
 
         if (args.length == 1) {
-            completions.addAll(Arrays.asList("stick", "spawn", "cleanup"));
+            completions.addAll(Arrays.asList("stick", "spawn", "cleanup", "stats"));
+            if (sender.hasPermission(CONVERT_PERMISSION)) {
+                completions.add("convert");
+            }
         } else if (args.length == 2 && args[0].equalsIgnoreCase("spawn")) {
             for (Material material : Material.values()) {
                 if (material.isBlock()) {
@@ -116,6 +208,8 @@ public record GravityBlockCommand(GravityBlocksPlugin plugin) implements Command
             }
         } else if (args.length == 3 && args[0].equalsIgnoreCase("spawn")) {
             completions.addAll(Arrays.asList("0.5", "1.0", "1.5", "2.0", "3.0"));
+        } else if (args.length >= 2 && args.length <= 7 && args[0].equalsIgnoreCase("convert")) {
+            completions.add("~");
         }
 
         return completions;
@@ -2,77 +2,187 @@ package com.bruhdows.gravityblocks.listener;
 
 import com.bruhdows.gravityblocks.GravityBlocksPlugin;
 import com.bruhdows.gravityblocks.manager.GravityBlockManager;
+import com.bruhdows.gravityblocks.manager.GravityStickManager;
 import com.bruhdows.gravityblocks.object.GravityBlock;
 import com.bruhdows.gravityblocks.util.TextUtil;
+import net.kyori.adventure.text.Component;
+import org.bukkit.Location;
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
 import org.bukkit.event.block.Action;
+import org.bukkit.event.entity.EntityPickupItemEvent;
+import org.bukkit.event.inventory.InventoryClickEvent;
+import org.bukkit.event.inventory.InventoryDragEvent;
+import org.bukkit.event.player.PlayerDropItemEvent;
 import org.bukkit.event.player.PlayerInteractEvent;
-import org.bukkit.inventory.ItemStack;
+import org.bukkit.event.player.PlayerItemBreakEvent;
+import org.bukkit.event.player.PlayerItemHeldEvent;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+import org.bukkit.event.player.PlayerRespawnEvent;
+import org.bukkit.event.player.PlayerSwapHandItemsEvent;
 import org.bukkit.util.Vector;
 
 public record GravityStickListener(GravityBlocksPlugin plugin) implements Listener {
 
     private static final double THROW_POWER = 1.5;
+    private static final Component RELEASED = TextUtil.color("<green>Released gravity block!");
+    private static final Component ALREADY_HELD = TextUtil.color("<red>This block is already being held!");
+    private static final Component GRABBED = TextUtil.color("<green>Grabbed gravity block!");
+    private static final Component THREW = TextUtil.color("<green>Threw gravity block!");
+    private static final Component DELETED = TextUtil.color("<red>Deleted gravity block!");
 
     @EventHandler
     public void onPlayerInteract(PlayerInteractEvent event) {
         Player player = event.getPlayer();
-        ItemStack item = event.getItem();
+        GravityStickManager sticks = plugin.getGravityStickManager();
 
-        if (!plugin.getGravityStickManager().isGravityStick(item)) {
+        if (!sticks.isHoldingStick(player, event.getHand())) {
             return;
         }
 
         event.setCancelled(true);
 
+        if (!sticks.tryClick(player)) {
+            return;
+        }
+
+        StickInteractionEvent interaction = StickInteractionEvent.TYPE.isEnabled() ? new StickInteractionEvent() : null;
+        if (interaction != null) {
+            interaction.begin();
+        }
+        GravityBlock block = null;
         if (event.getAction() == Action.RIGHT_CLICK_AIR ||
                 event.getAction() == Action.RIGHT_CLICK_BLOCK) {
-            handleRightClick(player);
+            block = handleRightClick(player, interaction);
         } else if (event.getAction() == Action.LEFT_CLICK_AIR ||
                 event.getAction() == Action.LEFT_CLICK_BLOCK) {
-            handleLeftClick(player);
+            block = handleLeftClick(player, interaction);
+        }
+
+        if (interaction != null && interaction.shouldCommit()) {
+            Location location = player.getLocation();
+            interaction.player = player.getName();
+            interaction.action = event.getAction().name();
+            interaction.world = player.getWorld().getName();
+            interaction.chunkX = location.getBlockX() >> 4;
+            interaction.chunkZ = location.getBlockZ() >> 4;
+            if (block != null) {
+                interaction.blockId = block.getId();
+            }
+            interaction.commit();
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onItemHeld(PlayerItemHeldEvent event) {
+        plugin.getGravityStickManager().invalidate(event.getPlayer());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onSwapHands(PlayerSwapHandItemsEvent event) {
+        plugin.getGravityStickManager().invalidate(event.getPlayer());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onInventoryClick(InventoryClickEvent event) {
+        if (event.getWhoClicked() instanceof Player player) {
+            plugin.getGravityStickManager().invalidate(player);
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onInventoryDrag(InventoryDragEvent event) {
+        if (event.getWhoClicked() instanceof Player player) {
+            plugin.getGravityStickManager().invalidate(player);
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onDropItem(PlayerDropItemEvent event) {
+        plugin.getGravityStickManager().invalidate(event.getPlayer());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onPickupItem(EntityPickupItemEvent event) {
+        if (event.getEntity() instanceof Player player) {
+            plugin.getGravityStickManager().invalidate(player);
         }
     }
 
-    private void handleRightClick(Player player) {
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onItemBreak(PlayerItemBreakEvent event) {
+        plugin.getGravityStickManager().invalidate(event.getPlayer());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onRespawn(PlayerRespawnEvent event) {
+        plugin.getGravityStickManager().invalidate(event.getPlayer());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onJoin(PlayerJoinEvent event) {
+        plugin.getGravityStickManager().invalidate(event.getPlayer());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onQuit(PlayerQuitEvent event) {
+        plugin.getGravityStickManager().forget(event.getPlayer());
+    }
+
+    private GravityBlock handleRightClick(Player player, StickInteractionEvent interaction) {
         GravityBlockManager manager = plugin.getGravityBlockManager();
         GravityBlock heldBlock = manager.getHeldBlock(player);
 
         if (heldBlock != null) {
-            heldBlock.release();
-            TextUtil.sendActionBar(player, "<green>Released gravity block!");
-        } else {
-            GravityBlock targetBlock = manager.getTargetedBlock(player, 10.0);
-
-            if (targetBlock != null) {
-                if (targetBlock.isHeld()) {
-                    TextUtil.sendActionBar(player, "<red>This block is already being held!");
-                } else {
-                    targetBlock.grab(player);
-                    TextUtil.sendActionBar(player, "<green>Grabbed gravity block!");
+            manager.releaseBlock(heldBlock);
+            player.sendActionBar(RELEASED);
+            result(interaction, "released");
+            return heldBlock;
+        }
 
-                }
-            }
+        GravityBlock targetBlock = manager.getTargetedBlock(player, 10.0);
+        if (targetBlock == null) {
+            result(interaction, "miss");
+        } else if (targetBlock.isHeld()) {
+            player.sendActionBar(ALREADY_HELD);
+            result(interaction, "already_held");
+        } else {
+            manager.grabBlock(targetBlock, player);
+            player.sendActionBar(GRABBED);
+            result(interaction, "grabbed");
         }
+        return targetBlock;
     }
 
-    private void handleLeftClick(Player player) {
+    private GravityBlock handleLeftClick(Player player, StickInteractionEvent interaction) {
         GravityBlockManager manager = plugin.getGravityBlockManager();
         GravityBlock heldBlock = manager.getHeldBlock(player);
 
         if (heldBlock != null) {
             Vector direction = player.getEyeLocation().getDirection();
-            heldBlock.throwBlock(direction, THROW_POWER);
-            TextUtil.sendActionBar(player, "<green>Threw gravity block!");
+            manager.throwBlock(heldBlock, direction, THROW_POWER);
+            player.sendActionBar(THREW);
+            result(interaction, "threw");
+            return heldBlock;
+        }
+
+        GravityBlock targetBlock = manager.getTargetedBlock(player, 10.0);
+        if (targetBlock == null) {
+            result(interaction, "miss");
         } else {
-            GravityBlock targetBlock = manager.getTargetedBlock(player, 10.0);
+            manager.removeGravityBlock(targetBlock);
+            player.sendActionBar(DELETED);
+            result(interaction, "deleted");
+        }
+        return targetBlock;
+    }
 
-            if (targetBlock != null) {
-                manager.removeGravityBlock(targetBlock);
-                TextUtil.sendActionBar(player, "<red>Deleted gravity block!");
-            }
+    private static void result(StickInteractionEvent interaction, String result) {
+        if (interaction != null) {
+            interaction.result = result;
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,41 @@
+package com.bruhdows.gravityblocks.listener;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+@Name("gravityblocks.StickInteraction")
+@Label("Gravity Stick Interaction")
+@Description("Handling of one Gravity Stick click, including the block lookup and the grab, release, throw or delete")
+@Category("GravityBlocks")
+@StackTrace(false)
+@Threshold("200 us")
+final class StickInteractionEvent extends jdk.jfr.Event {
+
+    static final EventType TYPE = EventType.getEventType(StickInteractionEvent.class);
+
+    @Label("Player")
+    String player;
+
+    @Label("Action")
+    String action;
+
+    @Label("Result")
+    String result;
+
+    @Label("Block Id")
+    int blockId = -1;
+
+    @Label("World")
+    String world;
+
+    @Label("Chunk X")
+    int chunkX;
+
+    @Label("Chunk Z")
+    int chunkZ;
+}
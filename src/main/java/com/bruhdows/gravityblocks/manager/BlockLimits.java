@@ -0,0 +1,237 @@
+package com.bruhdows.gravityblocks.manager;
+
+import com.bruhdows.gravityblocks.object.GravityBlock;
+import com.bruhdows.gravityblocks.physics.BodyStore;
+import org.bukkit.Location;
+import org.bukkit.entity.Player;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+
+public class BlockLimits {
+
+    private final int perPlayer;
+    private final int perChunk;
+    private final int perWorld;
+    private final EvictionPolicy policy;
+    private final int evictionsPerTick;
+    private final Map<UUID, Set<GravityBlock>> blocksByOwner = new HashMap<>();
+    private final Map<UUID, Set<GravityBlock>> blocksByWorld = new HashMap<>();
+    private final Set<UUID> overOwners = new LinkedHashSet<>();
+    private final Set<UUID> overWorlds = new LinkedHashSet<>();
+    private final Set<BlockPartition.Bucket> overChunks = new LinkedHashSet<>();
+    private UUID[] owners = new UUID[64];
+    private long[] spawnedAt = new long[64];
+    private long[] asleepSince = new long[64];
+    private final Map<UUID, List<Location>> players = new HashMap<>();
+    private final List<GravityBlock> victims = new ArrayList<>();
+
+    public BlockLimits(int perPlayer, int perChunk, int perWorld, EvictionPolicy policy, int evictionsPerTick) {
+        this.perPlayer = perPlayer;
+        this.perChunk = perChunk;
+        this.perWorld = perWorld;
+        this.policy = policy;
+        this.evictionsPerTick = Math.max(1, evictionsPerTick);
+    }
+
+    public void add(GravityBlock block, UUID owner, long tick) {
+        int id = block.getId();
+        if (id >= owners.length) {
+            int capacity = Math.max(owners.length * 2, id + 1);
+            owners = Arrays.copyOf(owners, capacity);
+            spawnedAt = Arrays.copyOf(spawnedAt, capacity);
+            asleepSince = Arrays.copyOf(asleepSince, capacity);
+        }
+
+        owners[id] = owner;
+        spawnedAt[id] = tick;
+        asleepSince[id] = -1;
+
+        UUID world = block.getWorld().getUID();
+        Set<GravityBlock> worldBlocks = blocksByWorld.computeIfAbsent(world, key -> new LinkedHashSet<>());
+        worldBlocks.add(block);
+        if (perWorld > 0 && worldBlocks.size() > perWorld) {
+            overWorlds.add(world);
+        }
+
+        if (owner != null) {
+            Set<GravityBlock> ownerBlocks = blocksByOwner.computeIfAbsent(owner, key -> new LinkedHashSet<>());
+            ownerBlocks.add(block);
+            if (perPlayer > 0 && ownerBlocks.size() > perPlayer) {
+                overOwners.add(owner);
+            }
+        }
+    }
+
+    public void remove(GravityBlock block) {
+        int id = block.getId();
+        UUID world = block.getWorld().getUID();
+        Set<GravityBlock> worldBlocks = blocksByWorld.get(world);
+        if (worldBlocks != null && worldBlocks.remove(block) && worldBlocks.isEmpty()) {
+            blocksByWorld.remove(world);
+        }
+
+        UUID owner = id < owners.length ? owners[id] : null;
+        if (owner != null) {
+            Set<GravityBlock> ownerBlocks = blocksByOwner.get(owner);
+            if (ownerBlocks != null && ownerBlocks.remove(block) && ownerBlocks.isEmpty()) {
+                blocksByOwner.remove(owner);
+            }
+            owners[id] = null;
+        }
+    }
+
+    public boolean hasRoom(UUID owner) {
+        if (owner == null || perPlayer <= 0) {
+            return true;
+        }
+        Set<GravityBlock> ownerBlocks = blocksByOwner.get(owner);
+        return ownerBlocks == null || ownerBlocks.size() < perPlayer;
+    }
+
+    public UUID getOwner(int id) {
+        return id < owners.length ? owners[id] : null;
+    }
+
+    public void checkChunk(BlockPartition.Bucket bucket) {
+        if (perChunk > 0 && bucket.getBlocks().size() > perChunk) {
+            overChunks.add(bucket);
+        }
+    }
+
+    public void updateSleep(int id, boolean sleeping, long tick) {
+        if (!sleeping) {
+            asleepSince[id] = -1;
+        } else if (asleepSince[id] < 0) {
+            asleepSince[id] = tick;
+        }
+    }
+
+    private boolean isOverLimit() {
+        return !overOwners.isEmpty() || !overWorlds.isEmpty() || !overChunks.isEmpty();
+    }
+
+    public int evict(LocalBlockManager manager, BodyStore bodies, long tick) {
+        if (!isOverLimit()) {
+            return 0;
+        }
+
+        players.clear();
+        int budget = evictionsPerTick;
+        budget -= evictOver(overOwners, blocksByOwner::get, perPlayer, manager, bodies, tick, budget);
+        budget -= evictOver(overWorlds, blocksByWorld::get, perWorld, manager, bodies, tick, budget);
+        budget -= evictOver(overChunks, BlockPartition.Bucket::getBlocks, perChunk, manager, bodies, tick, budget);
+        return evictionsPerTick - budget;
+    }
+
+    private <K> int evictOver(Set<K> scopes, Function<K, Collection<GravityBlock>> lookup, int limit,
+                              LocalBlockManager manager, BodyStore bodies, long tick, int budget) {
+        int evicted = 0;
+        Iterator<K> iterator = scopes.iterator();
+        while (iterator.hasNext() && evicted < budget) {
+            Collection<GravityBlock> blocks = lookup.apply(iterator.next());
+            if (blocks != null && blocks.size() > limit) {
+                victims.clear();
+                selectVictims(blocks, Math.min(budget - evicted, blocks.size() - limit), bodies, tick);
+                for (GravityBlock victim : victims) {
+                    manager.removeGravityBlock(victim);
+                    evicted++;
+                }
+            }
+
+            if (blocks == null || blocks.size() <= limit || evicted < budget) {
+                iterator.remove();
+            }
+        }
+        victims.clear();
+        return evicted;
+    }
+
+    private void selectVictims(Collection<GravityBlock> blocks, int count, BodyStore bodies, long tick) {
+        if (policy == EvictionPolicy.OLDEST && blocks instanceof LinkedHashSet) {
+            for (GravityBlock block : blocks) {
+                if (!bodies.isHeld(block.getId())) {
+                    victims.add(block);
+                    if (victims.size() == count) {
+                        return;
+                    }
+                }
+            }
+            return;
+        }
+
+        PriorityQueue<Candidate> worst = new PriorityQueue<>(count, Comparator.comparingDouble(Candidate::score));
+        for (GravityBlock block : blocks) {
+            int id = block.getId();
+            if (bodies.isHeld(id)) {
+                continue;
+            }
+
+            double score = switch (policy) {
+                case OLDEST -> -spawnedAt[id];
+                case FARTHEST -> distanceToPlayers(block, bodies);
+                case LONGEST_ASLEEP -> asleepSince[id] < 0 ? -1 : tick - asleepSince[id];
+            };
+            if (worst.size() < count) {
+                worst.add(new Candidate(score, block));
+            } else if (score > worst.peek().score()) {
+                worst.poll();
+                worst.add(new Candidate(score, block));
+            }
+        }
+
+        for (Candidate candidate : worst) {
+            victims.add(candidate.block());
+        }
+    }
+
+    private double distanceToPlayers(GravityBlock block, BodyStore bodies) {
+        List<Location> locations = players.computeIfAbsent(block.getWorld().getUID(), key -> {
+            List<Location> result = new ArrayList<>();
+            for (Player player : block.getWorld().getPlayers()) {
+                result.add(player.getLocation());
+            }
+            return result;
+        });
+
+        int id = block.getId();
+        double closest = Double.MAX_VALUE;
+        for (Location location : locations) {
+            double dx = location.getX() - bodies.getX(id);
+            double dy = location.getY() - bodies.getY(id);
+            double dz = location.getZ() - bodies.getZ(id);
+            closest = Math.min(closest, dx * dx + dy * dy + dz * dz);
+        }
+        return closest;
+    }
+
+    public void clear() {
+        blocksByOwner.clear();
+        blocksByWorld.clear();
+        overOwners.clear();
+        overWorlds.clear();
+        overChunks.clear();
+        players.clear();
+        Arrays.fill(owners, null);
+    }
+
+    private record Candidate(double score, GravityBlock block) {
+    }
+
+    public enum EvictionPolicy {
+        OLDEST,
+        FARTHEST,
+        LONGEST_ASLEEP
+    }
+}
@@ -0,0 +1,160 @@
+package com.bruhdows.gravityblocks.manager;
+
+import com.bruhdows.gravityblocks.object.GravityBlock;
+import lombok.Getter;
+import org.bukkit.Chunk;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+public class BlockPartition {
+
+    private final Map<UUID, Map<Long, Bucket>> worlds = new HashMap<>();
+    private final Set<Bucket> activeBuckets = new LinkedHashSet<>();
+    private Bucket[] bucketsById = new Bucket[64];
+    private int[] slotsById = new int[64];
+    private int size;
+
+    public Bucket add(GravityBlock block, int chunkX, int chunkZ) {
+        int id = block.getId();
+        if (id >= bucketsById.length) {
+            int capacity = Math.max(bucketsById.length * 2, id + 1);
+            bucketsById = Arrays.copyOf(bucketsById, capacity);
+            slotsById = Arrays.copyOf(slotsById, capacity);
+        }
+
+        Bucket bucket = worlds.computeIfAbsent(block.getWorld().getUID(), key -> new HashMap<>())
+                .computeIfAbsent(Chunk.getChunkKey(chunkX, chunkZ),
+                        key -> new Bucket(block.getWorld().getUID(), chunkX, chunkZ));
+        slotsById[id] = bucket.blocks.size();
+        bucket.blocks.add(block);
+        bucketsById[id] = bucket;
+        size++;
+        updateActive(bucket);
+        return bucket;
+    }
+
+    public void remove(GravityBlock block) {
+        int id = block.getId();
+        if (id >= bucketsById.length || bucketsById[id] == null) {
+            return;
+        }
+
+        Bucket bucket = bucketsById[id];
+        bucketsById[id] = null;
+        GravityBlock last = bucket.blocks.remove(bucket.blocks.size() - 1);
+        if (last != block) {
+            bucket.blocks.set(slotsById[id], last);
+            slotsById[last.getId()] = slotsById[id];
+        }
+        size--;
+
+        if (bucket.blocks.isEmpty()) {
+            activeBuckets.remove(bucket);
+            Map<Long, Bucket> worldBuckets = worlds.get(bucket.world);
+            worldBuckets.remove(Chunk.getChunkKey(bucket.chunkX, bucket.chunkZ));
+            if (worldBuckets.isEmpty()) {
+                worlds.remove(bucket.world);
+            }
+        }
+    }
+
+    public Bucket relocate(GravityBlock block, int chunkX, int chunkZ) {
+        Bucket current = getBucket(block);
+        if (current != null && current.chunkX == chunkX && current.chunkZ == chunkZ) {
+            return current;
+        }
+
+        remove(block);
+        return add(block, chunkX, chunkZ);
+    }
+
+    public Bucket getBucket(GravityBlock block) {
+        int id = block.getId();
+        return id < bucketsById.length ? bucketsById[id] : null;
+    }
+
+    public Bucket getBucket(UUID world, int chunkX, int chunkZ) {
+        Map<Long, Bucket> worldBuckets = worlds.get(world);
+        return worldBuckets != null ? worldBuckets.get(Chunk.getChunkKey(chunkX, chunkZ)) : null;
+    }
+
+    public Collection<Bucket> getBuckets(UUID world) {
+        Map<Long, Bucket> worldBuckets = worlds.get(world);
+        return worldBuckets != null ? worldBuckets.values() : Collections.emptyList();
+    }
+
+    public Collection<UUID> getWorlds() {
+        return worlds.keySet();
+    }
+
+    public Collection<Bucket> getActiveBuckets() {
+        return activeBuckets;
+    }
+
+    public void setSuspended(Bucket bucket, boolean suspended) {
+        bucket.suspended = suspended;
+        updateActive(bucket);
+    }
+
+    public void setFrozen(Bucket bucket, boolean frozen) {
+        bucket.frozen = frozen;
+        updateActive(bucket);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public void clear() {
+        for (Map<Long, Bucket> worldBuckets : worlds.values()) {
+            for (Bucket bucket : worldBuckets.values()) {
+                bucket.blocks.clear();
+                bucket.dirty = false;
+            }
+        }
+        worlds.clear();
+        activeBuckets.clear();
+        Arrays.fill(bucketsById, null);
+        size = 0;
+    }
+
+    private void updateActive(Bucket bucket) {
+        if (bucket.isActive() && !bucket.blocks.isEmpty()) {
+            activeBuckets.add(bucket);
+        } else {
+            activeBuckets.remove(bucket);
+        }
+    }
+
+    @Getter
+    public static class Bucket {
+
+        private final UUID world;
+        private final int chunkX;
+        private final int chunkZ;
+        private final List<GravityBlock> blocks = new ArrayList<>();
+        private boolean suspended;
+        private boolean frozen;
+        boolean dirty;
+        boolean restored;
+
+        private Bucket(UUID world, int chunkX, int chunkZ) {
+            this.world = world;
+            this.chunkX = chunkX;
+            this.chunkZ = chunkZ;
+        }
+
+        public boolean isActive() {
+            return !suspended && !frozen;
+        }
+    }
+}
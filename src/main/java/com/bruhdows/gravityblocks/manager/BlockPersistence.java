@@ -0,0 +1,227 @@
+package com.bruhdows.gravityblocks.manager;
+
+import com.bruhdows.gravityblocks.object.GravityBlock;
+import com.bruhdows.gravityblocks.physics.BodyStore;
+import org.bukkit.Bukkit;
+import org.bukkit.Chunk;
+import org.bukkit.NamespacedKey;
+import org.bukkit.block.data.BlockData;
+import org.bukkit.persistence.PersistentDataContainer;
+import org.bukkit.persistence.PersistentDataType;
+import org.bukkit.plugin.Plugin;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+public class BlockPersistence {
+
+    private static final byte FORMAT_VERSION = 2;
+    private static final byte FLAG_SLEEPING = 1;
+
+    private final NamespacedKey key;
+    private final ArrayDeque<BlockPartition.Bucket> dirtyBuckets = new ArrayDeque<>();
+    private final Map<PendingLoad, BlockPartition.Bucket> dirtyChunks = new HashMap<>();
+    private final Set<PendingLoad> pendingLoads = new LinkedHashSet<>();
+
+    public BlockPersistence(Plugin plugin) {
+        this.key = new NamespacedKey(plugin, "gravity_blocks");
+    }
+
+    public void markDirty(BlockPartition.Bucket bucket) {
+        if (!bucket.dirty) {
+            bucket.dirty = true;
+            dirtyBuckets.add(bucket);
+            dirtyChunks.put(chunkOf(bucket), bucket);
+        }
+    }
+
+    public void markClean(BlockPartition.Bucket bucket) {
+        bucket.dirty = false;
+        dirtyChunks.remove(chunkOf(bucket), bucket);
+    }
+
+    public BlockPartition.Bucket pollDirty() {
+        BlockPartition.Bucket bucket;
+        while ((bucket = dirtyBuckets.poll()) != null) {
+            if (bucket.dirty) {
+                markClean(bucket);
+                return bucket;
+            }
+        }
+        return null;
+    }
+
+    public int getDirtyCount() {
+        return dirtyChunks.size();
+    }
+
+    public boolean takeDirty(UUID world, int chunkX, int chunkZ) {
+        BlockPartition.Bucket bucket = dirtyChunks.remove(new PendingLoad(world, chunkX, chunkZ));
+        if (bucket == null || !bucket.dirty) {
+            return false;
+        }
+
+        bucket.dirty = false;
+        return true;
+    }
+
+    public void queueLoad(UUID world, int chunkX, int chunkZ) {
+        pendingLoads.add(new PendingLoad(world, chunkX, chunkZ));
+    }
+
+    public boolean cancelLoad(UUID world, int chunkX, int chunkZ) {
+        return pendingLoads.remove(new PendingLoad(world, chunkX, chunkZ));
+    }
+
+    public PendingLoad pollLoad() {
+        Iterator<PendingLoad> iterator = pendingLoads.iterator();
+        if (!iterator.hasNext()) {
+            return null;
+        }
+
+        PendingLoad load = iterator.next();
+        iterator.remove();
+        return load;
+    }
+
+    public boolean isIdle() {
+        return dirtyBuckets.isEmpty() && pendingLoads.isEmpty();
+    }
+
+    public boolean hasBlocks(Chunk chunk) {
+        return chunk.getPersistentDataContainer().has(key);
+    }
+
+    public void clearQueues() {
+        for (BlockPartition.Bucket bucket : dirtyBuckets) {
+            bucket.dirty = false;
+        }
+        dirtyBuckets.clear();
+        dirtyChunks.clear();
+        pendingLoads.clear();
+    }
+
+    public void write(Chunk chunk, List<GravityBlock> blocks, BodyStore bodies) {
+        PersistentDataContainer container = chunk.getPersistentDataContainer();
+        if (blocks.isEmpty()) {
+            container.remove(key);
+            return;
+        }
+
+        container.set(key, PersistentDataType.BYTE_ARRAY, encode(blocks, bodies));
+    }
+
+    public void clear(Chunk chunk) {
+        chunk.getPersistentDataContainer().remove(key);
+    }
+
+    public List<StoredBlock> read(Chunk chunk) {
+        byte[] data = chunk.getPersistentDataContainer().get(key, PersistentDataType.BYTE_ARRAY);
+        if (data == null) {
+            return Collections.emptyList();
+        }
+
+        return decode(data);
+    }
+
+    private static byte[] encode(List<GravityBlock> blocks, BodyStore bodies) {
+        Map<String, Integer> paletteIndex = new HashMap<>();
+        List<String> palette = new ArrayList<>();
+        int[] indices = new int[blocks.size()];
+        for (int i = 0; i < blocks.size(); i++) {
+            String blockData = blocks.get(i).getBlockData().getAsString();
+            Integer index = paletteIndex.get(blockData);
+            if (index == null) {
+                index = palette.size();
+                paletteIndex.put(blockData, index);
+                palette.add(blockData);
+            }
+            indices[i] = index;
+        }
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(16 + palette.size() * 32 + blocks.size() * 44);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(FORMAT_VERSION);
+            out.writeShort(palette.size());
+            for (String blockData : palette) {
+                out.writeUTF(blockData);
+            }
+
+            out.writeInt(blocks.size());
+            for (int i = 0; i < blocks.size(); i++) {
+                int id = blocks.get(i).getId();
+                out.writeShort(indices[i]);
+                out.writeFloat((float) bodies.getSize(id));
+                out.writeDouble(bodies.getX(id));
+                out.writeDouble(bodies.getY(id));
+                out.writeDouble(bodies.getZ(id));
+                out.writeFloat((float) bodies.getVelocityX(id));
+                out.writeFloat((float) bodies.getVelocityY(id));
+                out.writeFloat((float) bodies.getVelocityZ(id));
+                out.writeByte(bodies.isSleeping(id) ? FLAG_SLEEPING : 0);
+                out.writeInt(bodies.isCompound(id) ? bodies.getRoot(id) : -1);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static List<StoredBlock> decode(byte[] data) {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(data))) {
+            byte version = in.readByte();
+            if (version < 1 || version > FORMAT_VERSION) {
+                return Collections.emptyList();
+            }
+
+            BlockData[] palette = new BlockData[in.readUnsignedShort()];
+            for (int i = 0; i < palette.length; i++) {
+                palette[i] = Bukkit.createBlockData(in.readUTF());
+            }
+
+            int count = in.readInt();
+            List<StoredBlock> blocks = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                StoredBlock block = new StoredBlock(
+                        palette[in.readUnsignedShort()],
+                        in.readFloat(),
+                        in.readDouble(), in.readDouble(), in.readDouble(),
+                        in.readFloat(), in.readFloat(), in.readFloat(),
+                        (in.readByte() & FLAG_SLEEPING) != 0,
+                        version >= 2 ? in.readInt() : -1
+                );
+                if (block.size() > 0 && !Double.isInfinite(block.size())) {
+                    blocks.add(block);
+                }
+            }
+            return blocks;
+        } catch (IOException | IllegalArgumentException e) {
+            return Collections.emptyList();
+        }
+    }
+
+    private static PendingLoad chunkOf(BlockPartition.Bucket bucket) {
+        return new PendingLoad(bucket.getWorld(), bucket.getChunkX(), bucket.getChunkZ());
+    }
+
+    public record PendingLoad(UUID world, int chunkX, int chunkZ) {
+    }
+
+    public record StoredBlock(BlockData blockData, double size, double x, double y, double z,
+                              double velocityX, double velocityY, double velocityZ, boolean sleeping, int compound) {
+    }
+}
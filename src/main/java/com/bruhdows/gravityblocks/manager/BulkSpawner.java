@@ -0,0 +1,263 @@
+package com.bruhdows.gravityblocks.manager;
+
+import com.bruhdows.gravityblocks.object.GravityBlock;
+import com.bruhdows.gravityblocks.physics.CellKey;
+import org.bukkit.Location;
+import org.bukkit.Material;
+import org.bukkit.World;
+import org.bukkit.block.Block;
+import org.bukkit.block.TileState;
+import org.bukkit.block.data.BlockData;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.IntConsumer;
+
+public class BulkSpawner {
+
+    private final LocalBlockManager manager;
+    private final long budgetNanos;
+    private final int maxRegionVolume;
+    private final boolean mergeConnected;
+    private final ArrayDeque<Job> jobs = new ArrayDeque<>();
+    private final Map<BlockData, BlockData> blockDataPool = new HashMap<>();
+
+    public BulkSpawner(LocalBlockManager manager, double budgetMillis, int maxRegionVolume, boolean mergeConnected) {
+        this.manager = manager;
+        this.budgetNanos = (long) (budgetMillis * 1_000_000);
+        this.maxRegionVolume = maxRegionVolume;
+        this.mergeConnected = mergeConnected;
+    }
+
+    public void spawn(World world, List<SpawnRequest> requests, IntConsumer onComplete) {
+        jobs.add(new ListJob(world, requests, onComplete));
+    }
+
+    public boolean convertRegion(World world, int x1, int y1, int z1, int x2, int y2, int z2, UUID owner,
+                                 IntConsumer onComplete) {
+        int minY = Math.max(world.getMinHeight(), Math.min(y1, y2));
+        int maxY = Math.min(world.getMaxHeight() - 1, Math.max(y1, y2));
+        long volume = (long) (Math.abs(x2 - x1) + 1) * (Math.abs(z2 - z1) + 1) * Math.max(0, maxY - minY + 1);
+        if (volume > maxRegionVolume) {
+            return false;
+        }
+
+        jobs.add(new RegionJob(world, Math.min(x1, x2), minY, Math.min(z1, z2),
+                Math.max(x1, x2), maxY, Math.max(z1, z2), owner, onComplete));
+        return true;
+    }
+
+    public boolean isIdle() {
+        return jobs.isEmpty();
+    }
+
+    public int getMaxRegionVolume() {
+        return maxRegionVolume;
+    }
+
+    public void tick() {
+        if (jobs.isEmpty()) {
+            return;
+        }
+
+        long start = System.nanoTime();
+        while (!jobs.isEmpty()) {
+            Job job = jobs.peek();
+            while (job.spawnNext() || job.finishNext()) {
+                if (System.nanoTime() - start > budgetNanos) {
+                    return;
+                }
+            }
+
+            jobs.poll();
+            if (job.onComplete != null) {
+                job.onComplete.accept(job.spawned);
+            }
+        }
+        blockDataPool.clear();
+    }
+
+    public void cancel(World world) {
+        jobs.removeIf(job -> job.world.equals(world));
+    }
+
+    public void clear() {
+        jobs.clear();
+        blockDataPool.clear();
+    }
+
+    private BlockData share(BlockData blockData) {
+        BlockData shared = blockDataPool.putIfAbsent(blockData, blockData);
+        return shared != null ? shared : blockData;
+    }
+
+    public record SpawnRequest(double x, double y, double z, BlockData blockData, double size) {
+    }
+
+    private abstract static class Job {
+
+        final World world;
+        final IntConsumer onComplete;
+        final Location location;
+        int spawned;
+
+        Job(World world, IntConsumer onComplete) {
+            this.world = world;
+            this.onComplete = onComplete;
+            this.location = new Location(world, 0, 0, 0);
+        }
+
+        abstract boolean spawnNext();
+
+        boolean finishNext() {
+            return false;
+        }
+    }
+
+    private class ListJob extends Job {
+
+        private final List<SpawnRequest> requests;
+        private int index;
+
+        ListJob(World world, List<SpawnRequest> requests, IntConsumer onComplete) {
+            super(world, onComplete);
+            this.requests = requests;
+        }
+
+        @Override
+        boolean spawnNext() {
+            if (index >= requests.size()) {
+                return false;
+            }
+
+            SpawnRequest request = requests.get(index++);
+            if (world.isChunkLoaded((int) Math.floor(request.x()) >> 4, (int) Math.floor(request.z()) >> 4)) {
+                location.set(request.x(), request.y(), request.z());
+                manager.createGravityBlock(location, share(request.blockData()), request.size(), null);
+                spawned++;
+            }
+            return true;
+        }
+    }
+
+    private class RegionJob extends Job {
+
+        private final int minX;
+        private final int minZ;
+        private final int maxX;
+        private final int maxY;
+        private final int maxZ;
+        private final UUID owner;
+        private final Map<Long, GravityBlock> pending = new LinkedHashMap<>();
+        private final ArrayDeque<Long> queue = new ArrayDeque<>();
+        private List<GravityBlock> compound;
+        private int x;
+        private int y;
+        private int z;
+
+        RegionJob(World world, int minX, int minY, int minZ, int maxX, int maxY, int maxZ, UUID owner,
+                  IntConsumer onComplete) {
+            super(world, onComplete);
+            this.owner = owner;
+            this.minX = minX;
+            this.minZ = minZ;
+            this.maxX = maxX;
+            this.maxY = maxY;
+            this.maxZ = maxZ;
+            this.x = minX;
+            this.y = minY;
+            this.z = minZ;
+        }
+
+        @Override
+        boolean spawnNext() {
+            if (y > maxY || !manager.hasRoom(owner)) {
+                return false;
+            }
+
+            convert(x, y, z);
+            if (++x > maxX) {
+                x = minX;
+                if (++z > maxZ) {
+                    z = minZ;
+                    y++;
+                }
+            }
+            return true;
+        }
+
+        private void convert(int blockX, int blockY, int blockZ) {
+            if (!manager.owns(world, blockX >> 4, blockZ >> 4) || !world.isChunkLoaded(blockX >> 4, blockZ >> 4)) {
+                return;
+            }
+
+            Block block = world.getBlockAt(blockX, blockY, blockZ);
+            Material type = block.getType();
+            if (type.isAir() || block.isLiquid() || block.getState(false) instanceof TileState) {
+                return;
+            }
+
+            BlockData blockData = share(block.getBlockData());
+            block.setType(Material.AIR, false);
+            manager.handleBlockChange(block);
+
+            location.set(blockX, blockY, blockZ);
+            GravityBlock spawnedBlock = manager.createGravityBlock(location, blockData, 1.0, owner);
+            spawned++;
+
+            if (mergeConnected) {
+                manager.freezeBlock(spawnedBlock);
+                pending.put(CellKey.pack(blockX, blockY, blockZ), spawnedBlock);
+            }
+        }
+
+        @Override
+        boolean finishNext() {
+            if (compound == null) {
+                if (pending.isEmpty()) {
+                    return false;
+                }
+
+                long start = pending.keySet().iterator().next();
+                compound = new ArrayList<>();
+                compound.add(pending.remove(start));
+                queue.add(start);
+                return true;
+            }
+
+            Long key = queue.poll();
+            if (key != null) {
+                int cellX = CellKey.unpackX(key);
+                int cellY = CellKey.unpackY(key);
+                int cellZ = CellKey.unpackZ(key);
+                visit(CellKey.pack(cellX - 1, cellY, cellZ));
+                visit(CellKey.pack(cellX + 1, cellY, cellZ));
+                visit(CellKey.pack(cellX, cellY - 1, cellZ));
+                visit(CellKey.pack(cellX, cellY + 1, cellZ));
+                visit(CellKey.pack(cellX, cellY, cellZ - 1));
+                visit(CellKey.pack(cellX, cellY, cellZ + 1));
+                return true;
+            }
+
+            compound.removeIf(block -> !manager.contains(block));
+            if (!compound.isEmpty()) {
+                manager.createCompound(compound);
+            }
+            compound = null;
+            return true;
+        }
+
+        private void visit(long key) {
+            GravityBlock block = pending.remove(key);
+            if (block != null) {
+                compound.add(block);
+                queue.add(key);
+            }
+        }
+    }
+}
@@ -5,17 +5,28 @@ import com.bruhdows.gravityblocks.util.TextUtil;
 import org.bukkit.Material;
 import org.bukkit.NamespacedKey;
 import org.bukkit.enchantments.Enchantment;
+import org.bukkit.entity.Player;
+import org.bukkit.inventory.EquipmentSlot;
 import org.bukkit.inventory.ItemFlag;
 import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.PlayerInventory;
 import org.bukkit.inventory.meta.ItemMeta;
 import org.bukkit.persistence.PersistentDataType;
 
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Stream;
 
-public record GravityStickManager(GravityBlocksPlugin plugin) {
+public class GravityStickManager {
 
-    private NamespacedKey getGravityStickKey() {
-        return new NamespacedKey(plugin, "gravity_stick");
+    private static final long CLICK_COOLDOWN_NANOS = 200_000_000L;
+
+    private final NamespacedKey key;
+    private final Map<UUID, StickState> states = new ConcurrentHashMap<>();
+
+    public GravityStickManager(GravityBlocksPlugin plugin) {
+        this.key = new NamespacedKey(plugin, "gravity_stick");
     }
 
     public ItemStack createGravityStick() {
@@ -24,7 +35,7 @@ public record GravityStickManager(GravityBlocksPlugin plugin) {
 
         if (meta != null) {
             meta.getPersistentDataContainer().set(
-                    getGravityStickKey(),
+                    key,
                     PersistentDataType.BOOLEAN,
                     true
             );
@@ -50,14 +61,63 @@ public record GravityStickManager(GravityBlocksPlugin plugin) {
             return false;
         }
 
-        ItemMeta meta = item.getItemMeta();
-        if (meta == null) {
+        return item.getPersistentDataContainer().has(key, PersistentDataType.BOOLEAN);
+    }
+
+    public boolean isHoldingStick(Player player, EquipmentSlot hand) {
+        StickState state = states.computeIfAbsent(player.getUniqueId(), id -> new StickState());
+        if (state.dirty) {
+            PlayerInventory inventory = player.getInventory();
+            state.mainHand = isGravityStick(inventory.getItemInMainHand());
+            state.offHand = isGravityStick(inventory.getItemInOffHand());
+            state.dirty = false;
+        }
+
+        if (hand == EquipmentSlot.HAND) {
+            ItemStack item = player.getInventory().getItemInMainHand();
+            if (state.mainHand || item.getType() == Material.BLAZE_ROD) {
+                state.mainHand = isGravityStick(item);
+            }
+            return state.mainHand;
+        }
+
+        if (hand == EquipmentSlot.OFF_HAND) {
+            ItemStack item = player.getInventory().getItemInOffHand();
+            if (state.offHand || item.getType() == Material.BLAZE_ROD) {
+                state.offHand = isGravityStick(item);
+            }
+            return state.offHand;
+        }
+        return false;
+    }
+
+    public boolean tryClick(Player player) {
+        StickState state = states.get(player.getUniqueId());
+        long now = System.nanoTime();
+        if (state == null || now - state.lastClick < CLICK_COOLDOWN_NANOS) {
             return false;
         }
 
-        return meta.getPersistentDataContainer().has(
-                getGravityStickKey(),
-                PersistentDataType.BOOLEAN
-        );
+        state.lastClick = now;
+        return true;
+    }
+
+    public void invalidate(Player player) {
+        StickState state = states.get(player.getUniqueId());
+        if (state != null) {
+            state.dirty = true;
+        }
+    }
+
+    public void forget(Player player) {
+        states.remove(player.getUniqueId());
+    }
+
+    private static final class StickState {
+
+        private boolean dirty = true;
+        private boolean mainHand;
+        private boolean offHand;
+        private long lastClick = System.nanoTime() - CLICK_COOLDOWN_NANOS;
     }
-}
\ No newline at end of file
+}
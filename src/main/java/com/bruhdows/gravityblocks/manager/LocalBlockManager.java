@@ -0,0 +1,938 @@
+package com.bruhdows.gravityblocks.manager;
+
+import com.bruhdows.gravityblocks.GravityBlocksPlugin;
+import com.bruhdows.gravityblocks.object.GravityBlock;
+import com.bruhdows.gravityblocks.physics.BodyStore;
+import com.bruhdows.gravityblocks.physics.CellKey;
+import com.bruhdows.gravityblocks.physics.PhysicsEngine;
+import com.bruhdows.gravityblocks.physics.PhysicsSnapshot;
+import com.bruhdows.gravityblocks.physics.StepStats;
+import com.bruhdows.gravityblocks.render.BlockRenderer;
+import com.bruhdows.gravityblocks.render.BlockView;
+import com.bruhdows.gravityblocks.render.EntityBlockRenderer;
+import com.bruhdows.gravityblocks.render.PacketBlockRenderer;
+import com.bruhdows.gravityblocks.render.PacketEventsSink;
+import com.bruhdows.gravityblocks.world.ChunkEntityIndex;
+import com.bruhdows.gravityblocks.world.ChunkSolidityCache;
+import org.bukkit.Chunk;
+import org.bukkit.Location;
+import org.bukkit.Material;
+import org.bukkit.World;
+import org.bukkit.block.Block;
+import org.bukkit.block.data.BlockData;
+import org.bukkit.entity.Player;
+import org.bukkit.util.Vector;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.logging.Level;
+
+public class LocalBlockManager implements GravityBlockManager {
+
+    private static final int ENTITY_MARGIN = 2;
+
+    private final GravityBlocksPlugin plugin;
+    private final RegionBlockManager regions;
+    private final RegionBlockManager.Section section;
+    private final PhysicsEngine physicsEngine;
+    private final BlockPartition partition = new BlockPartition();
+    private final BodyStore bodies = new BodyStore();
+    private final BodyStore stepBodies = new BodyStore();
+    private final ChunkSolidityCache solidityCache;
+    private final ChunkEntityIndex entityIndex;
+    private final MovementSync movementSync;
+    private final TickScheduler scheduler;
+    private final TargetIndex targetIndex = new TargetIndex(bodies);
+    private final PhysicsMetrics metrics = new PhysicsMetrics();
+    private final BulkSpawner bulkSpawner;
+    private final MaterialDensities densities;
+    private final BlockLimits limits;
+    private final BlockRenderer renderer;
+    private final BlockPersistence persistence;
+    private final boolean persistenceEnabled;
+    private final int chunkSavesPerTick;
+    private final int chunkLoadsPerTick;
+    private final int freezeDistance;
+    private final int freezeCheckInterval;
+    private long tickCount;
+    private Map<UUID, Set<Long>> wakeRequests = new HashMap<>();
+    private GravityBlock[] blocksById = new GravityBlock[64];
+    private final Map<UUID, GravityBlock> blocksByHolder = new HashMap<>();
+    private final Map<Integer, GravityBlock> blocksByEntityId = new HashMap<>();
+    private final double[] eye = new double[6];
+
+    private PhysicsSnapshot pendingSnapshot;
+    private ChunkEntityIndex.Frame pendingEntities;
+    private CompletableFuture<PhysicsSnapshot> pendingStep;
+    private long pendingSince;
+
+    public LocalBlockManager(GravityBlocksPlugin plugin) {
+        this(plugin, new PhysicsEngine(Math.max(1, Runtime.getRuntime().availableProcessors() / 2)),
+                createRenderer(plugin), null, null);
+    }
+
+    LocalBlockManager(GravityBlocksPlugin plugin, PhysicsEngine physicsEngine, BlockRenderer renderer,
+                      RegionBlockManager regions, RegionBlockManager.Section section) {
+        this.plugin = plugin;
+        this.regions = regions;
+        this.section = section;
+        this.physicsEngine = physicsEngine;
+        this.solidityCache = new ChunkSolidityCache(plugin.getServer(), regions != null);
+        this.movementSync = new MovementSync(
+                plugin.getConfig().getDouble("movement-sync.epsilon", 0.01),
+                plugin.getConfig().getInt("movement-sync.teleport-duration", 2)
+        );
+        this.scheduler = new TickScheduler(
+                plugin.getConfig().getDouble("scheduler.budget-ms", 10),
+                plugin.getConfig().getDouble("scheduler.far-distance", 48),
+                plugin.getConfig().getInt("scheduler.far-interval", 4),
+                plugin.getConfig().getInt("scheduler.max-catch-up", 1)
+        );
+        this.freezeDistance = plugin.getConfig().getInt("partition.freeze-distance", 0);
+        this.freezeCheckInterval = Math.max(1, plugin.getConfig().getInt("partition.freeze-check-interval", 20));
+        this.bulkSpawner = new BulkSpawner(this,
+                plugin.getConfig().getDouble("bulk-spawn.budget-ms", 5),
+                plugin.getConfig().getInt("bulk-spawn.max-region-volume", 65536),
+                plugin.getConfig().getBoolean("bulk-spawn.merge-connected", true)
+        );
+        this.renderer = renderer;
+        this.densities = new MaterialDensities(plugin.getConfig().getConfigurationSection("density"));
+        this.limits = new BlockLimits(
+                plugin.getConfig().getInt("limits.per-player", 512),
+                plugin.getConfig().getInt("limits.per-chunk", 0),
+                plugin.getConfig().getInt("limits.per-world", 0),
+                parsePolicy(plugin.getConfig().getString("limits.eviction-policy", "OLDEST")),
+                plugin.getConfig().getInt("limits.evictions-per-tick", 32)
+        );
+        this.persistence = new BlockPersistence(plugin);
+        this.persistenceEnabled = plugin.getConfig().getBoolean("persistence.enabled", true);
+        this.chunkSavesPerTick = Math.max(1, plugin.getConfig().getInt("persistence.chunk-saves-per-tick", 2));
+        this.chunkLoadsPerTick = Math.max(1, plugin.getConfig().getInt("persistence.chunk-loads-per-tick", 4));
+        this.entityIndex = plugin.getConfig().getBoolean("entity-collision.enabled", true)
+                ? new ChunkEntityIndex(plugin.getServer(), regions != null, plugin.getConfig().getDouble("entity-collision.density", 1.0))
+                : null;
+    }
+
+    @Override
+    public void start() {
+        restoreLoadedChunks();
+        plugin.getServer().getScheduler().runTaskTimer(plugin, this::tick, 0L, 1L);
+    }
+
+    @Override
+    public void createGravityBlock(Location location, Material material, double size, UUID owner) {
+        GravityBlock block = new GravityBlock(bodies, renderer, location, material, size, densities.get(material));
+        register(block, owner);
+        markDirty(block);
+    }
+
+    public GravityBlock createGravityBlock(Location location, BlockData blockData, double size, UUID owner) {
+        GravityBlock block = new GravityBlock(bodies, renderer, location, blockData, size, densities.get(blockData.getMaterial()));
+        register(block, owner);
+        markDirty(block);
+        return block;
+    }
+
+    public void createCompound(List<GravityBlock> blocks) {
+        int[] ids = new int[blocks.size()];
+        for (int i = 0; i < ids.length; i++) {
+            GravityBlock block = blocks.get(i);
+            if (block.getHolder() != null) {
+                releaseBlock(block);
+            }
+            ids[i] = block.getId();
+        }
+
+        bodies.join(ids);
+        for (GravityBlock block : blocks) {
+            relocate(block);
+            applyBucketState(block, partition.getBucket(block));
+            markDirty(block);
+        }
+    }
+
+    boolean contains(GravityBlock block) {
+        return block.getId() < blocksById.length && blocksById[block.getId()] == block;
+    }
+
+    boolean hasRoom(UUID owner) {
+        return limits.hasRoom(owner);
+    }
+
+    void freezeBlock(GravityBlock block) {
+        bodies.freeze(block.getId());
+    }
+
+    private GravityBlock restoreGravityBlock(World world, BlockPersistence.StoredBlock stored) {
+        GravityBlock block = new GravityBlock(bodies, renderer, new Location(world, stored.x(), stored.y(), stored.z()),
+                stored.blockData(), stored.size(), densities.get(stored.blockData().getMaterial()));
+
+        int id = block.getId();
+        bodies.setVelocity(id, stored.velocityX(), stored.velocityY(), stored.velocityZ());
+        if (stored.sleeping()) {
+            bodies.sleep(id);
+        }
+        return block;
+    }
+
+    private void register(GravityBlock block, UUID owner) {
+        if (block.getId() >= blocksById.length) {
+            blocksById = Arrays.copyOf(blocksById, Math.max(blocksById.length * 2, block.getId() + 1));
+        }
+
+        blocksById[block.getId()] = block;
+        blocksByEntityId.put(block.getView().getEntityId(), block);
+        movementSync.track(block);
+        targetIndex.update(block.getId());
+        BlockPartition.Bucket bucket = partition.add(block, chunkX(block.getId()), chunkZ(block.getId()));
+        initializeBucket(bucket, block.getWorld());
+        applyBucketState(block, bucket);
+        limits.add(block, owner, scheduler.getCurrentTick());
+        limits.checkChunk(bucket);
+    }
+
+    @Override
+    public void removeGravityBlock(GravityBlock block) {
+        markDirty(block);
+        unregister(block);
+    }
+
+    private void unregister(GravityBlock block) {
+        if (block.getHolder() != null) {
+            blocksByHolder.remove(block.getHolder().getUniqueId(), block);
+        }
+        if (block.getView() != null) {
+            blocksByEntityId.remove(block.getView().getEntityId());
+        }
+
+        targetIndex.remove(block.getWorld().getUID(), block.getId());
+        block.remove();
+        limits.remove(block);
+        partition.remove(block);
+        blocksById[block.getId()] = null;
+        movementSync.untrack(block.getId());
+        scheduler.forget(block.getId());
+    }
+
+    @Override
+    public void grabBlock(GravityBlock block, Player player) {
+        GravityBlock previous = blocksByHolder.put(player.getUniqueId(), block);
+        if (previous != null && previous != block) {
+            previous.release();
+        }
+        block.grab(player);
+    }
+
+    @Override
+    public void releaseBlock(GravityBlock block) {
+        if (block.getHolder() != null) {
+            blocksByHolder.remove(block.getHolder().getUniqueId(), block);
+        }
+        block.release();
+    }
+
+    @Override
+    public void throwBlock(GravityBlock block, Vector direction, double power) {
+        if (block.getHolder() != null) {
+            blocksByHolder.remove(block.getHolder().getUniqueId(), block);
+        }
+        block.throwBlock(direction, power);
+    }
+
+    @Override
+    public void loadChunk(Chunk chunk) {
+        resumeChunk(chunk.getWorld(), chunk.getX(), chunk.getZ());
+        if (persistenceEnabled) {
+            persistence.queueLoad(chunk.getWorld().getUID(), chunk.getX(), chunk.getZ());
+        }
+    }
+
+    @Override
+    public void unloadChunk(Chunk chunk) {
+        World world = chunk.getWorld();
+        solidityCache.evict(world, chunk.getX(), chunk.getZ());
+        if (!persistenceEnabled) {
+            suspendChunk(world, chunk.getX(), chunk.getZ());
+            return;
+        }
+
+        boolean loadPending = persistence.cancelLoad(world.getUID(), chunk.getX(), chunk.getZ());
+        BlockPartition.Bucket bucket = partition.getBucket(world.getUID(), chunk.getX(), chunk.getZ());
+        if (bucket == null) {
+            if (persistence.takeDirty(world.getUID(), chunk.getX(), chunk.getZ()) && !loadPending) {
+                persistence.clear(chunk);
+            }
+            return;
+        }
+        if (bucket.isSuspended()) {
+            return;
+        }
+
+        persistence.write(chunk, bucket.getBlocks(), bodies);
+        persistence.markClean(bucket);
+        for (GravityBlock block : new ArrayList<>(bucket.getBlocks())) {
+            unregister(block);
+        }
+    }
+
+    private void restoreLoadedChunks() {
+        if (!persistenceEnabled) {
+            return;
+        }
+
+        for (World world : plugin.getServer().getWorlds()) {
+            for (Chunk chunk : world.getLoadedChunks()) {
+                persistence.queueLoad(world.getUID(), chunk.getX(), chunk.getZ());
+            }
+        }
+    }
+
+    private void saveDirtyChunks() {
+        for (int i = 0; i < chunkSavesPerTick; i++) {
+            BlockPartition.Bucket bucket = persistence.pollDirty();
+            if (bucket == null) {
+                return;
+            }
+            saveBucket(bucket);
+        }
+    }
+
+    private void saveBucket(BlockPartition.Bucket bucket) {
+        World world = plugin.getServer().getWorld(bucket.getWorld());
+        if (world == null || bucket.isSuspended() || !owns(world, bucket.getChunkX(), bucket.getChunkZ())
+                || !world.isChunkLoaded(bucket.getChunkX(), bucket.getChunkZ())) {
+            return;
+        }
+
+        persistence.write(world.getChunkAt(bucket.getChunkX(), bucket.getChunkZ()), bucket.getBlocks(), bodies);
+    }
+
+    private void loadPendingChunks() {
+        for (int i = 0; i < chunkLoadsPerTick; i++) {
+            BlockPersistence.PendingLoad load = persistence.pollLoad();
+            if (load == null) {
+                return;
+            }
+
+            World world = plugin.getServer().getWorld(load.world());
+            BlockPartition.Bucket restored = partition.getBucket(load.world(), load.chunkX(), load.chunkZ());
+            if (world == null || !owns(world, load.chunkX(), load.chunkZ())
+                    || !world.isChunkLoaded(load.chunkX(), load.chunkZ()) || restored != null && restored.restored) {
+                continue;
+            }
+
+            List<GravityBlock> blocks = new ArrayList<>();
+            Map<Integer, List<GravityBlock>> compounds = new HashMap<>();
+            for (BlockPersistence.StoredBlock stored : persistence.read(world.getChunkAt(load.chunkX(), load.chunkZ()))) {
+                GravityBlock block = restoreGravityBlock(world, stored);
+                blocks.add(block);
+                if (stored.compound() >= 0) {
+                    compounds.computeIfAbsent(stored.compound(), key -> new ArrayList<>()).add(block);
+                }
+            }
+
+            for (List<GravityBlock> compound : compounds.values()) {
+                int root = compound.get(0).getId();
+                boolean sleeping = bodies.isSleeping(root);
+                bodies.join(compound.stream().mapToInt(GravityBlock::getId).toArray());
+                if (sleeping) {
+                    bodies.sleep(root);
+                }
+            }
+
+            for (GravityBlock block : blocks) {
+                register(block, null);
+            }
+
+            restored = partition.getBucket(load.world(), load.chunkX(), load.chunkZ());
+            if (restored != null) {
+                restored.restored = true;
+            }
+        }
+    }
+
+    private void markDirty(GravityBlock block) {
+        if (persistenceEnabled) {
+            BlockPartition.Bucket bucket = partition.getBucket(block);
+            if (bucket != null) {
+                persistence.markDirty(bucket);
+            }
+        }
+    }
+
+    public void suspendChunk(World world, int chunkX, int chunkZ) {
+        BlockPartition.Bucket bucket = partition.getBucket(world.getUID(), chunkX, chunkZ);
+        if (bucket == null || bucket.isSuspended()) {
+            return;
+        }
+
+        partition.setSuspended(bucket, true);
+        for (GravityBlock block : bucket.getBlocks()) {
+            detach(block);
+            bodies.freeze(block.getId());
+        }
+    }
+
+    public void resumeChunk(World world, int chunkX, int chunkZ) {
+        BlockPartition.Bucket bucket = partition.getBucket(world.getUID(), chunkX, chunkZ);
+        if (bucket == null || !bucket.isSuspended()) {
+            return;
+        }
+
+        partition.setSuspended(bucket, false);
+        for (GravityBlock block : bucket.getBlocks()) {
+            attach(block);
+            applyBucketState(block, bucket);
+        }
+    }
+
+    private void detach(GravityBlock block) {
+        if (block.isHeld()) {
+            releaseBlock(block);
+        }
+        if (block.getView() != null) {
+            blocksByEntityId.remove(block.getView().getEntityId());
+        }
+
+        movementSync.untrack(block.getId());
+        targetIndex.remove(block.getWorld().getUID(), block.getId());
+        block.suspend();
+    }
+
+    private void attach(GravityBlock block) {
+        block.resume();
+        blocksByEntityId.put(block.getView().getEntityId(), block);
+        movementSync.track(block);
+        targetIndex.update(block.getId());
+    }
+
+    @Override
+    public void unloadWorld(World world) {
+        bulkSpawner.cancel(world);
+        List<GravityBlock> blocks = new ArrayList<>();
+        for (BlockPartition.Bucket bucket : partition.getBuckets(world.getUID())) {
+            if (persistenceEnabled) {
+                saveBucket(bucket);
+                persistence.markClean(bucket);
+            }
+            blocks.addAll(bucket.getBlocks());
+        }
+
+        for (GravityBlock block : blocks) {
+            unregister(block);
+        }
+        targetIndex.unloadWorld(world.getUID());
+        solidityCache.unloadWorld(world);
+    }
+
+    public void tick() {
+        TickEvent event = TickEvent.TYPE.isEnabled() ? new TickEvent() : null;
+        if (event != null) {
+            event.begin();
+        }
+        scheduler.beginTick();
+        if (freezeDistance > 0 && tickCount++ % freezeCheckInterval == 0) {
+            updateFrozenBuckets();
+        }
+
+        long workerNanos = 0;
+        boolean applied = pendingStep != null;
+        if (applied) {
+            if (!pendingStep.isDone()) {
+                workerNanos = System.nanoTime() - pendingSince;
+                scheduler.endTick(workerNanos);
+                commitTickEvent(event, false, workerNanos);
+                return;
+            }
+            workerNanos = pendingSnapshot.getStepNanos();
+            StepStats stats = pendingSnapshot.getStats();
+            metrics.record(stats, workerNanos);
+            if (event != null) {
+                event.awakeBodies = stats.getAwakeBodies();
+                event.contacts = stats.getContacts();
+            }
+
+            long start = System.nanoTime();
+            completeStep();
+            metrics.record(PhysicsMetrics.Metric.APPLY, System.nanoTime() - start);
+
+            start = System.nanoTime();
+            int teleports = movementSync.flush();
+            metrics.record(PhysicsMetrics.Metric.TELEPORTS_SENT, teleports);
+            if (event != null) {
+                event.teleports = teleports;
+            }
+            metrics.record(PhysicsMetrics.Metric.TELEPORT, System.nanoTime() - start);
+        }
+
+        if (persistenceEnabled) {
+            loadPendingChunks();
+            saveDirtyChunks();
+        }
+        bulkSpawner.tick();
+        metrics.record(PhysicsMetrics.Metric.EVICTIONS, limits.evict(this, bodies, scheduler.getCurrentTick()));
+        renderer.tick();
+
+        long start = System.nanoTime();
+        pendingSnapshot = capture();
+        metrics.record(PhysicsMetrics.Metric.CAPTURE, System.nanoTime() - start);
+        if (pendingEntities != null) {
+            metrics.record(PhysicsMetrics.Metric.ENTITIES_INDEXED, pendingEntities.getEntityCount());
+        }
+        pendingStep = physicsEngine.submit(pendingSnapshot);
+        pendingSince = System.nanoTime();
+        scheduler.endTick(workerNanos);
+
+        if (applied) {
+            metrics.commit();
+        }
+        commitTickEvent(event, applied, workerNanos);
+    }
+
+    private void commitTickEvent(TickEvent event, boolean applied, long workerNanos) {
+        if (event != null && event.shouldCommit()) {
+            if (section != null) {
+                event.world = section.world().toString();
+                event.sectionX = section.x();
+                event.sectionZ = section.z();
+            }
+            event.blocks = partition.size();
+            event.stepApplied = applied;
+            event.workerNanos = workerNanos;
+            event.commit();
+        }
+    }
+
+    @Override
+    public PhysicsMetrics getMetrics(Location location) {
+        return metrics;
+    }
+
+    @Override
+    public BulkSpawner getBulkSpawner(Location location) {
+        return bulkSpawner;
+    }
+
+    @Override
+    public void shutdown() {
+        stop();
+        if (persistenceEnabled) {
+            flushDirtyChunks();
+            for (UUID worldId : partition.getWorlds()) {
+                for (BlockPartition.Bucket bucket : partition.getBuckets(worldId)) {
+                    saveBucket(bucket);
+                }
+            }
+            persistence.clearQueues();
+        }
+        removeAll();
+        renderer.shutdown();
+    }
+
+    int discard() {
+        stop();
+        int unsaved = persistence.getDirtyCount();
+        persistence.clearQueues();
+        return unsaved;
+    }
+
+    void flushDirtyChunks() {
+        BlockPartition.Bucket bucket;
+        while ((bucket = persistence.pollDirty()) != null) {
+            saveBucket(bucket);
+        }
+    }
+
+    private void stop() {
+        physicsEngine.shutdown();
+        bulkSpawner.clear();
+        pendingStep = null;
+        pendingSnapshot = null;
+        pendingEntities = null;
+        solidityCache.clear();
+    }
+
+    boolean owns(World world, int chunkX, int chunkZ) {
+        return regions == null || plugin.getServer().isOwnedByCurrentRegion(world, chunkX, chunkZ);
+    }
+
+    public ChunkSolidityCache getSolidityCache() {
+        return solidityCache;
+    }
+
+    @Override
+    public void handleBlockChange(Block block) {
+        World world = block.getWorld();
+        if (solidityCache.invalidateBlock(world, block.getX(), block.getZ())) {
+            wakeRequests.computeIfAbsent(world.getUID(), key -> new HashSet<>())
+                    .add(CellKey.pack(block.getX(), block.getY(), block.getZ()));
+        }
+    }
+
+    @Override
+    public void handleBlockPhysics(Block block) {
+        handleBlockPhysics(block, block.getType().isSolid());
+    }
+
+    @Override
+    public void handleBlockPhysics(Block block, boolean solid) {
+        World world = block.getWorld();
+        if (solidityCache.updateBlock(world, block.getX(), block.getY(), block.getZ(), solid)) {
+            wakeRequests.computeIfAbsent(world.getUID(), key -> new HashSet<>())
+                    .add(CellKey.pack(block.getX(), block.getY(), block.getZ()));
+        }
+    }
+
+    private PhysicsSnapshot capture() {
+        ChunkSolidityCache.Frame frame = solidityCache.beginFrame();
+        ChunkEntityIndex.Frame entities = entityIndex != null ? entityIndex.beginFrame() : null;
+
+        bodies.clearStepTicks();
+
+        for (BlockPartition.Bucket bucket : scheduler.beginCapture(partition.getActiveBuckets())) {
+            World world = plugin.getServer().getWorld(bucket.getWorld());
+            int interval = scheduler.bucketInterval(world, bucket);
+            for (GravityBlock block : bucket.getBlocks()) {
+                Player holder = block.getHolder();
+                if (holder != null && (!holder.isOnline()
+                        || regions != null && !plugin.getServer().isOwnedByCurrentRegion(holder))) {
+                    releaseBlock(block);
+                }
+                block.prepareStep(eye);
+
+                int id = block.getId();
+                if (bodies.getRoot(id) != id) {
+                    continue;
+                }
+
+                if (bodies.isInactive(id)) {
+                    scheduler.touch(id);
+                    continue;
+                }
+
+                int ticks = scheduler.stepTicks(id, bodies.isHeld(id) ? 1 : interval);
+                bodies.setStepTicks(id, ticks);
+                if (ticks > 0 && !bodies.isHeld(id)) {
+                    double reach = PhysicsEngine.collisionReach(bodies, id);
+                    int minX = (int) Math.floor(bodies.getShapeMinX(id) - reach);
+                    int minZ = (int) Math.floor(bodies.getShapeMinZ(id) - reach);
+                    int maxX = (int) Math.ceil(bodies.getShapeMaxX(id) + reach);
+                    int maxZ = (int) Math.ceil(bodies.getShapeMaxZ(id) + reach);
+                    frame.require(world, minX, minZ, maxX, maxZ);
+                    if (entities != null) {
+                        entities.require(world, minX - ENTITY_MARGIN, minZ - ENTITY_MARGIN, maxX + ENTITY_MARGIN, maxZ + ENTITY_MARGIN);
+                    }
+                }
+            }
+            scheduler.bucketCaptured();
+
+            if (scheduler.isOverBudget()) {
+                break;
+            }
+        }
+
+        stepBodies.copyFrom(bodies);
+        PhysicsSnapshot snapshot = new PhysicsSnapshot(stepBodies, frame.getViews(), bodies.drainRemovedIds(), wakeRequests,
+                entities != null ? entities.getIndexes() : Map.of());
+        wakeRequests = new HashMap<>();
+        pendingEntities = entities;
+        return snapshot;
+    }
+
+    private void completeStep() {
+        try {
+            pendingStep.join();
+
+            for (int index = 0; index < stepBodies.size(); index++) {
+                int id = stepBodies.idAt(index);
+                if (stepBodies.isInactive(id) && bodies.isInactive(id)) {
+                    continue;
+                }
+
+                GravityBlock block = blocksById[id];
+                if (block != null && bodies.getVersion(id) == stepBodies.getVersion(id)) {
+                    bodies.copyBody(stepBodies, id);
+                    movementSync.queue(id, bodies.getX(id), bodies.getY(id), bodies.getZ(id));
+                    targetIndex.update(id);
+                    limits.updateSleep(id, bodies.isSleeping(id), scheduler.getCurrentTick());
+                    relocate(block);
+                    markDirty(block);
+                }
+            }
+
+            if (pendingEntities != null) {
+                metrics.record(PhysicsMetrics.Metric.ENTITIES_PUSHED, pendingEntities.apply());
+            }
+        } catch (CompletionException e) {
+            plugin.getLogger().log(Level.SEVERE, "Gravity block physics step failed", e.getCause());
+        }
+
+        pendingStep = null;
+        pendingSnapshot = null;
+        pendingEntities = null;
+    }
+
+    private void relocate(GravityBlock block) {
+        BlockPartition.Bucket current = partition.getBucket(block);
+        int chunkX = chunkX(block.getId());
+        int chunkZ = chunkZ(block.getId());
+        if (current.getChunkX() == chunkX && current.getChunkZ() == chunkZ) {
+            return;
+        }
+
+        if (regions != null && bodies.getRoot(block.getId()) == block.getId()
+                && !regions.sectionOf(block.getWorld().getUID(), chunkX, chunkZ).equals(section)) {
+            handOff(block, chunkX, chunkZ);
+            return;
+        }
+
+        if (persistenceEnabled) {
+            persistence.markDirty(current);
+        }
+        BlockPartition.Bucket bucket = partition.relocate(block, chunkX, chunkZ);
+        initializeBucket(bucket, block.getWorld());
+        limits.checkChunk(bucket);
+        if (bucket.isSuspended()) {
+            detach(block);
+        }
+        applyBucketState(block, bucket);
+    }
+
+    private void handOff(GravityBlock block, int chunkX, int chunkZ) {
+        int root = block.getId();
+        List<Handoff.Body> moved = new ArrayList<>();
+        List<GravityBlock> members = new ArrayList<>();
+        for (int member : bodies.getMembers(root)) {
+            GravityBlock memberBlock = blocksById[member];
+            if (memberBlock == null) {
+                continue;
+            }
+
+            double size = memberBlock.getSize();
+            moved.add(new Handoff.Body(memberBlock.getBlockData(), size, bodies.getBodyMass(member) / (size * size * size),
+                    bodies.getX(member), bodies.getY(member), bodies.getZ(member),
+                    bodies.getVelocityX(member), bodies.getVelocityY(member), bodies.getVelocityZ(member),
+                    memberBlock.getView(), limits.getOwner(member)));
+            members.add(memberBlock);
+        }
+
+        Handoff handoff = new Handoff(block.getWorld(), moved, block.getHolder(), bodies.isSleeping(root));
+        for (GravityBlock member : members) {
+            if (member.getView() != null) {
+                blocksByEntityId.remove(member.getView().getEntityId());
+                member.detachView();
+            }
+            markDirty(member);
+            unregister(member);
+        }
+        regions.handOff(block.getWorld(), chunkX, chunkZ, handoff);
+    }
+
+    void adopt(Handoff handoff) {
+        List<GravityBlock> blocks = new ArrayList<>(handoff.bodies().size());
+        for (Handoff.Body body : handoff.bodies()) {
+            Location location = new Location(handoff.world(), body.x(), body.y(), body.z());
+            BlockView view = body.view() != null ? body.view() : renderer.create(location, body.blockData(), body.size());
+            GravityBlock block = new GravityBlock(bodies, renderer, view, location, body.blockData(), body.size(),
+                    body.density());
+            register(block, body.owner());
+            bodies.setVelocity(block.getId(), body.velocityX(), body.velocityY(), body.velocityZ());
+            markDirty(block);
+            blocks.add(block);
+        }
+
+        if (blocks.isEmpty()) {
+            return;
+        }
+        if (blocks.size() > 1) {
+            createCompound(blocks);
+        }
+
+        GravityBlock root = blocks.get(0);
+        if (handoff.sleeping()) {
+            bodies.sleep(root.getId());
+        }
+        if (handoff.holder() != null) {
+            grabBlock(root, handoff.holder());
+        }
+        for (GravityBlock block : blocks) {
+            if (partition.getBucket(block).isSuspended()) {
+                detach(block);
+            }
+        }
+    }
+
+    boolean isIdle() {
+        return partition.size() == 0 && bulkSpawner.isIdle() && persistence.isIdle();
+    }
+
+    private void initializeBucket(BlockPartition.Bucket bucket, World world) {
+        if (bucket.getBlocks().size() != 1) {
+            return;
+        }
+
+        partition.setSuspended(bucket, !world.isChunkLoaded(bucket.getChunkX(), bucket.getChunkZ()));
+        if (freezeDistance > 0) {
+            partition.setFrozen(bucket, !isNearPlayer(world.getPlayers(), bucket));
+        }
+    }
+
+    private void applyBucketState(GravityBlock block, BlockPartition.Bucket bucket) {
+        if (bucket.isActive()) {
+            if (bodies.isFrozen(block.getId())) {
+                scheduler.forget(block.getId());
+            }
+            bodies.unfreeze(block.getId());
+        } else {
+            bodies.freeze(block.getId());
+        }
+    }
+
+    private void updateFrozenBuckets() {
+        for (UUID worldId : partition.getWorlds()) {
+            World world = plugin.getServer().getWorld(worldId);
+            if (world == null) {
+                continue;
+            }
+
+            List<Player> players = world.getPlayers();
+            for (BlockPartition.Bucket bucket : partition.getBuckets(worldId)) {
+                boolean frozen = !isNearPlayer(players, bucket);
+                if (bucket.isFrozen() == frozen) {
+                    continue;
+                }
+
+                partition.setFrozen(bucket, frozen);
+                for (GravityBlock block : bucket.getBlocks()) {
+                    applyBucketState(block, bucket);
+                }
+            }
+        }
+    }
+
+    private boolean isNearPlayer(List<Player> players, BlockPartition.Bucket bucket) {
+        for (Player player : players) {
+            Location location = player.getLocation();
+            if (Math.abs((location.getBlockX() >> 4) - bucket.getChunkX()) <= freezeDistance
+                    && Math.abs((location.getBlockZ() >> 4) - bucket.getChunkZ()) <= freezeDistance) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static BlockRenderer createRenderer(GravityBlocksPlugin plugin) {
+        if (!plugin.getConfig().getString("render.mode", "entity").equalsIgnoreCase("packet")) {
+            return new EntityBlockRenderer();
+        }
+
+        if (!plugin.getServer().getPluginManager().isPluginEnabled("packetevents")) {
+            plugin.getLogger().warning("render.mode is packet but PacketEvents is not installed, using display entities");
+            return new EntityBlockRenderer();
+        }
+
+        PacketBlockRenderer renderer = new PacketBlockRenderer(plugin.getServer(), new PacketEventsSink(),
+                plugin.getConfig().getDouble("render.view-distance", 64),
+                plugin.getConfig().getInt("render.view-update-interval", 10));
+        plugin.getServer().getPluginManager().registerEvents(renderer, plugin);
+        return renderer;
+    }
+
+    private static BlockLimits.EvictionPolicy parsePolicy(String name) {
+        try {
+            return BlockLimits.EvictionPolicy.valueOf(name.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return BlockLimits.EvictionPolicy.OLDEST;
+        }
+    }
+
+    private int chunkX(int id) {
+        int root = bodies.getRoot(id);
+        return (int) Math.floor(bodies.getX(root) + bodies.getSize(root) / 2) >> 4;
+    }
+
+    private int chunkZ(int id) {
+        int root = bodies.getRoot(id);
+        return (int) Math.floor(bodies.getZ(root) + bodies.getSize(root) / 2) >> 4;
+    }
+
+    @Override
+    public GravityBlock getTargetedBlock(Player player, double maxDistance) {
+        Location eyeLoc = player.getEyeLocation();
+        Vector direction = eyeLoc.getDirection().normalize();
+        Vector start = eyeLoc.toVector();
+
+        int id = targetIndex.raycast(player.getWorld().getUID(), start, direction, maxDistance);
+        return id >= 0 ? blocksById[id] : null;
+    }
+
+    @Override
+    public GravityBlock getHeldBlock(Player player) {
+        return blocksByHolder.get(player.getUniqueId());
+    }
+
+    public GravityBlock getBlockByEntityId(int entityId) {
+        return blocksByEntityId.get(entityId);
+    }
+
+    @Override
+    public void cleanupAll() {
+        if (persistenceEnabled) {
+            for (UUID worldId : partition.getWorlds()) {
+                for (BlockPartition.Bucket bucket : partition.getBuckets(worldId)) {
+                    clearSaved(worldId, bucket.getChunkX(), bucket.getChunkZ());
+                }
+            }
+
+            BlockPersistence.PendingLoad load;
+            while ((load = persistence.pollLoad()) != null) {
+                clearSaved(load.world(), load.chunkX(), load.chunkZ());
+            }
+            persistence.clearQueues();
+        }
+        removeAll();
+    }
+
+    private void clearSaved(UUID worldId, int chunkX, int chunkZ) {
+        World world = plugin.getServer().getWorld(worldId);
+        if (world != null && world.isChunkLoaded(chunkX, chunkZ)) {
+            persistence.clear(world.getChunkAt(chunkX, chunkZ));
+        }
+    }
+
+    private void removeAll() {
+        for (GravityBlock block : blocksById) {
+            if (block != null) {
+                block.remove();
+                blocksById[block.getId()] = null;
+                movementSync.untrack(block.getId());
+                scheduler.forget(block.getId());
+            }
+        }
+        partition.clear();
+        limits.clear();
+        blocksByHolder.clear();
+        blocksByEntityId.clear();
+        targetIndex.clear();
+    }
+
+    @Override
+    public int getBlockCount() {
+        return partition.size();
+    }
+
+    record Handoff(World world, List<Body> bodies, Player holder, boolean sleeping) {
+
+        record Body(BlockData blockData, double size, double density, double x, double y, double z,
+                    double velocityX, double velocityY, double velocityZ, BlockView view, UUID owner) {
+        }
+    }
+}
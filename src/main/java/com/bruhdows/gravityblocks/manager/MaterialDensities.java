@@ -0,0 +1,36 @@
+package com.bruhdows.gravityblocks.manager;
+
+import org.bukkit.Material;
+import org.bukkit.configuration.ConfigurationSection;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+public class MaterialDensities {
+
+    private final double defaultDensity;
+    private final Map<Material, Double> densities = new EnumMap<>(Material.class);
+
+    public MaterialDensities(ConfigurationSection section) {
+        this.defaultDensity = section != null ? Math.max(0.01, section.getDouble("default", 1.0)) : 1.0;
+        if (section == null) {
+            return;
+        }
+
+        ConfigurationSection materials = section.getConfigurationSection("materials");
+        if (materials == null) {
+            return;
+        }
+
+        for (String key : materials.getKeys(false)) {
+            Material material = Material.matchMaterial(key);
+            if (material != null) {
+                densities.put(material, Math.max(0.01, materials.getDouble(key)));
+            }
+        }
+    }
+
+    public double get(Material material) {
+        return densities.getOrDefault(material, defaultDensity);
+    }
+}
@@ -0,0 +1,98 @@
+package com.bruhdows.gravityblocks.manager;
+
+import com.bruhdows.gravityblocks.object.GravityBlock;
+import com.bruhdows.gravityblocks.physics.IntList;
+import com.bruhdows.gravityblocks.render.BlockView;
+
+import java.util.Arrays;
+
+public class MovementSync {
+
+    private final double epsilonSquared;
+    private final int teleportDuration;
+    private final IntList pending = new IntList();
+
+    private GravityBlock[] blocks = new GravityBlock[64];
+    private boolean[] queued = new boolean[64];
+    private double[] queuedPositions = new double[64 * 3];
+    private double[] sentPositions = new double[64 * 3];
+
+    public MovementSync(double epsilon, int teleportDuration) {
+        this.epsilonSquared = epsilon * epsilon;
+        this.teleportDuration = teleportDuration;
+    }
+
+    public void track(GravityBlock block) {
+        int id = block.getId();
+        ensureCapacity(id);
+
+        BlockView view = block.getView();
+        view.setTeleportDuration(teleportDuration);
+
+        blocks[id] = block;
+        queued[id] = false;
+        sentPositions[id * 3] = view.getX();
+        sentPositions[id * 3 + 1] = view.getY();
+        sentPositions[id * 3 + 2] = view.getZ();
+    }
+
+    public void untrack(int id) {
+        if (id < blocks.length) {
+            blocks[id] = null;
+            queued[id] = false;
+        }
+    }
+
+    public void queue(int id, double x, double y, double z) {
+        if (id >= blocks.length || blocks[id] == null) {
+            return;
+        }
+
+        if (!queued[id]) {
+            queued[id] = true;
+            pending.add(id);
+        }
+
+        queuedPositions[id * 3] = x;
+        queuedPositions[id * 3 + 1] = y;
+        queuedPositions[id * 3 + 2] = z;
+    }
+
+    public int flush() {
+        int sent = 0;
+        for (int i = 0; i < pending.size(); i++) {
+            int id = pending.get(i);
+            if (!queued[id]) {
+                continue;
+            }
+            queued[id] = false;
+
+            int offset = id * 3;
+            double dx = queuedPositions[offset] - sentPositions[offset];
+            double dy = queuedPositions[offset + 1] - sentPositions[offset + 1];
+            double dz = queuedPositions[offset + 2] - sentPositions[offset + 2];
+            if (dx * dx + dy * dy + dz * dz < epsilonSquared) {
+                continue;
+            }
+
+            System.arraycopy(queuedPositions, offset, sentPositions, offset, 3);
+            blocks[id].getView().moveTo(queuedPositions[offset], queuedPositions[offset + 1], queuedPositions[offset + 2]);
+            sent++;
+        }
+
+        pending.clear();
+        return sent;
+    }
+
+    private void ensureCapacity(int id) {
+        if (id < blocks.length) {
+            return;
+        }
+
+        int capacity = Math.max(blocks.length * 2, id + 1);
+        blocks = Arrays.copyOf(blocks, capacity);
+        queued = Arrays.copyOf(queued, capacity);
+        queuedPositions = Arrays.copyOf(queuedPositions, capacity * 3);
+        sentPositions = Arrays.copyOf(sentPositions, capacity * 3);
+    }
+}
@@ -0,0 +1,125 @@
+package com.bruhdows.gravityblocks.manager;
+
+import com.bruhdows.gravityblocks.physics.StepStats;
+import lombok.Getter;
+
+import java.util.Arrays;
+
+public class PhysicsMetrics {
+
+    public static final int WINDOW_TICKS = 1200;
+
+    private static final Metric[] METRICS = Metric.values();
+
+    private final long[][] samples = new long[METRICS.length][WINDOW_TICKS];
+    private final long[] current = new long[METRICS.length];
+    private int cursor;
+    private int count;
+
+    public void record(Metric metric, long value) {
+        current[metric.ordinal()] += value;
+    }
+
+    public void record(StepStats stats, long stepNanos) {
+        record(Metric.STEP, stepNanos);
+        record(Metric.INTEGRATION, stats.getIntegrationNanos());
+        record(Metric.WORLD_COLLISION, stats.getWorldCollisionNanos());
+        record(Metric.BROADPHASE, stats.getBroadphaseNanos());
+        record(Metric.PAIR_COLLISION, stats.getPairNanos());
+        record(Metric.PAIRS_TESTED, stats.getPairsTested());
+        record(Metric.PAIRS_COLLIDING, stats.getPairsColliding());
+        record(Metric.CONTACT_SOLVER, stats.getSolverNanos());
+        record(Metric.CONTACTS, stats.getContacts());
+        record(Metric.ENTITY_COLLISION, stats.getEntityNanos());
+        record(Metric.ENTITY_CONTACTS, stats.getEntityContacts());
+        record(Metric.AWAKE_BLOCKS, stats.getAwakeBodies());
+        record(Metric.SLEEPING_BLOCKS, stats.getSleepingBodies());
+        record(Metric.HELD_BLOCKS, stats.getHeldBodies());
+        record(Metric.FROZEN_BLOCKS, stats.getFrozenBodies());
+    }
+
+    public void commit() {
+        for (int i = 0; i < METRICS.length; i++) {
+            samples[i][cursor] = current[i];
+        }
+        Arrays.fill(current, 0);
+
+        cursor = (cursor + 1) % WINDOW_TICKS;
+        count = Math.min(count + 1, WINDOW_TICKS);
+    }
+
+    public int getSampleCount() {
+        return count;
+    }
+
+    public long latest(Metric metric) {
+        return count == 0 ? 0 : samples[metric.ordinal()][(cursor - 1 + WINDOW_TICKS) % WINDOW_TICKS];
+    }
+
+    public long percentile(Metric metric, double percentile) {
+        if (count == 0) {
+            return 0;
+        }
+
+        long[] sorted = Arrays.copyOf(samples[metric.ordinal()], count);
+        Arrays.sort(sorted);
+        int index = (int) Math.ceil(Math.max(0, Math.min(1, percentile)) * count) - 1;
+        return sorted[Math.max(0, index)];
+    }
+
+    public double average(Metric metric) {
+        if (count == 0) {
+            return 0;
+        }
+
+        long total = 0;
+        long[] values = samples[metric.ordinal()];
+        for (int i = 0; i < count; i++) {
+            total += values[i];
+        }
+        return (double) total / count;
+    }
+
+    public void reset() {
+        for (long[] values : samples) {
+            Arrays.fill(values, 0);
+        }
+        Arrays.fill(current, 0);
+        cursor = 0;
+        count = 0;
+    }
+
+    @Getter
+    public enum Metric {
+        CAPTURE("Capture", true),
+        APPLY("Apply", true),
+        TELEPORT("Teleport", true),
+        STEP("Worker step", true),
+        INTEGRATION("Integration", true),
+        WORLD_COLLISION("World collision", true),
+        BROADPHASE("Broadphase", true),
+        PAIR_COLLISION("Pair collision", true),
+        PAIRS_TESTED("Pairs tested", false),
+        PAIRS_COLLIDING("Pairs colliding", false),
+        CONTACT_SOLVER("Contact solver", true),
+        CONTACTS("Contacts", false),
+        ENTITY_COLLISION("Entity collision", true),
+        ENTITIES_INDEXED("Entities indexed", false),
+        ENTITY_CONTACTS("Entity contacts", false),
+        ENTITIES_PUSHED("Entities pushed", false),
+        TELEPORTS_SENT("Teleports sent", false),
+        EVICTIONS("Evictions", false),
+        AWAKE_BLOCKS("Awake blocks", false),
+        SLEEPING_BLOCKS("Sleeping blocks", false),
+        HELD_BLOCKS("Held blocks", false),
+        FROZEN_BLOCKS("Frozen blocks", false);
+
+        private final String displayName;
+        private final boolean timing;
+
+        Metric(String displayName, boolean timing) {
+            this.displayName = displayName;
+            this.timing = timing;
+        }
+    }
+}
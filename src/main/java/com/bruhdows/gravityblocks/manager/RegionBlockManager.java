@@ -0,0 +1,394 @@
+package com.bruhdows.gravityblocks.manager;
+
+import com.bruhdows.gravityblocks.GravityBlocksPlugin;
+import com.bruhdows.gravityblocks.object.GravityBlock;
+import com.bruhdows.gravityblocks.physics.PhysicsEngine;
+import com.bruhdows.gravityblocks.render.BlockRenderer;
+import com.bruhdows.gravityblocks.render.EntityBlockRenderer;
+import io.papermc.paper.threadedregions.scheduler.ScheduledTask;
+import org.bukkit.Chunk;
+import org.bukkit.Location;
+import org.bukkit.Material;
+import org.bukkit.Server;
+import org.bukkit.World;
+import org.bukkit.block.Block;
+import org.bukkit.entity.Player;
+import org.bukkit.util.RayTraceResult;
+import org.bukkit.util.Vector;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+
+public class RegionBlockManager implements GravityBlockManager {
+
+    private static final int RETIRE_TICKS = 600;
+
+    private final GravityBlocksPlugin plugin;
+    private final Server server;
+    private final int sectionShift;
+    private final ForkJoinPool pool;
+    private final BlockRenderer renderer = new EntityBlockRenderer(true);
+    private final BlockPersistence persistence;
+    private final Map<Section, Shard> shards = new ConcurrentHashMap<>();
+
+    public RegionBlockManager(GravityBlocksPlugin plugin) {
+        this.plugin = plugin;
+        this.server = plugin.getServer();
+        this.sectionShift = Math.max(0, plugin.getConfig().getInt("scheduler.region-section-shift", 4));
+        this.pool = new ForkJoinPool(Math.max(1, Runtime.getRuntime().availableProcessors() / 2));
+        this.persistence = new BlockPersistence(plugin);
+
+        if (plugin.getConfig().getString("render.mode", "entity").equalsIgnoreCase("packet")) {
+            plugin.getLogger().warning("render.mode packet is not supported with region scheduling, using display entities");
+        }
+    }
+
+    public static boolean isRegionized() {
+        try {
+            Class.forName("io.papermc.paper.threadedregions.RegionizedServer");
+            return true;
+        } catch (ClassNotFoundException e) {
+            return false;
+        }
+    }
+
+    @Override
+    public void start() {
+        for (World world : server.getWorlds()) {
+            for (Chunk chunk : world.getLoadedChunks()) {
+                runAt(world, chunk.getX(), chunk.getZ(), () -> loadChunk(chunk));
+            }
+        }
+    }
+
+    @Override
+    public void shutdown() {
+        int unsaved = 0;
+        for (Shard shard : shards.values()) {
+            shard.task.cancel();
+            if (shard.isOwned()) {
+                shard.manager.shutdown();
+            } else {
+                unsaved += shard.manager.discard();
+            }
+        }
+        if (unsaved > 0) {
+            plugin.getLogger().warning("Could not save " + unsaved + " gravity block chunks owned by other regions");
+        }
+        shards.clear();
+        pool.shutdownNow();
+    }
+
+    @Override
+    public void createGravityBlock(Location location, Material material, double size, UUID owner) {
+        World world = location.getWorld();
+        int chunkX = location.getBlockX() >> 4;
+        int chunkZ = location.getBlockZ() >> 4;
+        Location spawn = location.clone();
+        runAt(world, chunkX, chunkZ, () -> shard(world, chunkX, chunkZ).manager.createGravityBlock(spawn, material, size, owner));
+    }
+
+    @Override
+    public void removeGravityBlock(GravityBlock block) {
+        Shard shard = shardOf(block);
+        if (shard != null) {
+            shard.manager.removeGravityBlock(block);
+        }
+    }
+
+    @Override
+    public void grabBlock(GravityBlock block, Player player) {
+        GravityBlock previous = getHeldBlock(player);
+        if (previous != null && previous != block) {
+            releaseBlock(previous);
+        }
+
+        Shard shard = shardOf(block);
+        if (shard != null) {
+            shard.manager.grabBlock(block, player);
+        }
+    }
+
+    @Override
+    public void releaseBlock(GravityBlock block) {
+        Shard shard = shardOf(block);
+        if (shard != null) {
+            shard.manager.releaseBlock(block);
+        }
+    }
+
+    @Override
+    public void throwBlock(GravityBlock block, Vector direction, double power) {
+        Shard shard = shardOf(block);
+        if (shard != null) {
+            shard.manager.throwBlock(block, direction, power);
+        }
+    }
+
+    @Override
+    public GravityBlock getTargetedBlock(Player player, double maxDistance) {
+        Location eye = player.getEyeLocation();
+        Vector start = eye.toVector();
+        Vector direction = eye.getDirection().normalize();
+        GravityBlock target = null;
+        double distance = maxDistance;
+
+        for (Shard shard : nearby(player.getWorld(), eye.getBlockX() >> 4, eye.getBlockZ() >> 4)) {
+            GravityBlock hit = shard.manager.getTargetedBlock(player, distance);
+            if (hit == null) {
+                continue;
+            }
+
+            RayTraceResult result = hit.getBoundingBox().rayTrace(start, direction, distance);
+            if (result != null) {
+                target = hit;
+                distance = result.getHitPosition().distance(start);
+            }
+        }
+        return target;
+    }
+
+    @Override
+    public GravityBlock getHeldBlock(Player player) {
+        Location location = player.getLocation();
+        for (Shard shard : nearby(player.getWorld(), location.getBlockX() >> 4, location.getBlockZ() >> 4)) {
+            GravityBlock held = shard.manager.getHeldBlock(player);
+            if (held != null) {
+                return held;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public void loadChunk(Chunk chunk) {
+        World world = chunk.getWorld();
+        Shard shard = persistence.hasBlocks(chunk)
+                ? shard(world, chunk.getX(), chunk.getZ())
+                : shards.get(sectionOf(world.getUID(), chunk.getX(), chunk.getZ()));
+        if (shard != null) {
+            shard.manager.loadChunk(chunk);
+        }
+    }
+
+    @Override
+    public void unloadChunk(Chunk chunk) {
+        World world = chunk.getWorld();
+        Shard shard = shards.get(sectionOf(world.getUID(), chunk.getX(), chunk.getZ()));
+        if (shard != null) {
+            shard.manager.unloadChunk(chunk);
+        }
+
+        for (Shard neighbour : nearby(world, chunk.getX(), chunk.getZ())) {
+            neighbour.manager.getSolidityCache().evict(world, chunk.getX(), chunk.getZ());
+        }
+    }
+
+    @Override
+    public void unloadWorld(World world) {
+        for (Shard shard : shards.values()) {
+            if (shard.section.world().equals(world.getUID())) {
+                runAt(world, shard.anchorX(), shard.anchorZ(), () -> shard.manager.unloadWorld(world));
+            }
+        }
+    }
+
+    @Override
+    public void handleBlockChange(Block block) {
+        for (Shard shard : nearby(block.getWorld(), block.getX() >> 4, block.getZ() >> 4)) {
+            shard.manager.handleBlockChange(block);
+        }
+    }
+
+    @Override
+    public void handleBlockPhysics(Block block) {
+        for (Shard shard : nearby(block.getWorld(), block.getX() >> 4, block.getZ() >> 4)) {
+            shard.manager.handleBlockPhysics(block);
+        }
+    }
+
+    @Override
+    public void handleBlockPhysics(Block block, boolean solid) {
+        for (Shard shard : nearby(block.getWorld(), block.getX() >> 4, block.getZ() >> 4)) {
+            shard.manager.handleBlockPhysics(block, solid);
+        }
+    }
+
+    @Override
+    public BulkSpawner getBulkSpawner(Location location) {
+        return shard(location.getWorld(), location.getBlockX() >> 4, location.getBlockZ() >> 4).manager.getBulkSpawner(location);
+    }
+
+    @Override
+    public PhysicsMetrics getMetrics(Location location) {
+        Shard shard = shards.get(sectionOf(location.getWorld().getUID(), location.getBlockX() >> 4, location.getBlockZ() >> 4));
+        return shard != null && shard.isOwned() ? shard.manager.getMetrics(location) : new PhysicsMetrics();
+    }
+
+    @Override
+    public int getBlockCount() {
+        int count = 0;
+        for (Shard shard : shards.values()) {
+            count += shard.blockCount;
+        }
+        return count;
+    }
+
+    @Override
+    public void cleanupAll() {
+        for (Shard shard : shards.values()) {
+            runAt(shard.world, shard.anchorX(), shard.anchorZ(), shard.manager::cleanupAll);
+        }
+    }
+
+    Section sectionOf(UUID world, int chunkX, int chunkZ) {
+        return new Section(world, chunkX >> sectionShift, chunkZ >> sectionShift);
+    }
+
+    void handOff(World world, int chunkX, int chunkZ, LocalBlockManager.Handoff handoff) {
+        deliver(sectionOf(world.getUID(), chunkX, chunkZ), world, handoff);
+    }
+
+    private void deliver(Section section, World world, LocalBlockManager.Handoff handoff) {
+        while (true) {
+            Shard shard = shards.computeIfAbsent(section, key -> new Shard(key, world));
+            if (shard.offer(handoff)) {
+                return;
+            }
+            shards.remove(section, shard);
+        }
+    }
+
+    private Shard shard(World world, int chunkX, int chunkZ) {
+        return shards.computeIfAbsent(sectionOf(world.getUID(), chunkX, chunkZ), key -> new Shard(key, world));
+    }
+
+    private Shard shardOf(GravityBlock block) {
+        Location location = block.getLocation();
+        for (Shard shard : nearby(block.getWorld(), location.getBlockX() >> 4, location.getBlockZ() >> 4)) {
+            if (shard.manager.contains(block)) {
+                return shard;
+            }
+        }
+        return null;
+    }
+
+    private List<Shard> nearby(World world, int chunkX, int chunkZ) {
+        List<Shard> result = new ArrayList<>(1);
+        UUID worldId = world.getUID();
+        for (int sectionX = (chunkX - 1) >> sectionShift; sectionX <= (chunkX + 1) >> sectionShift; sectionX++) {
+            for (int sectionZ = (chunkZ - 1) >> sectionShift; sectionZ <= (chunkZ + 1) >> sectionShift; sectionZ++) {
+                Shard shard = shards.get(new Section(worldId, sectionX, sectionZ));
+                if (shard != null && shard.isOwned()) {
+                    result.add(shard);
+                }
+            }
+        }
+        return result;
+    }
+
+    private void runAt(World world, int chunkX, int chunkZ, Runnable task) {
+        if (server.isOwnedByCurrentRegion(world, chunkX, chunkZ)) {
+            task.run();
+        } else {
+            server.getRegionScheduler().execute(plugin, world, chunkX, chunkZ, task);
+        }
+    }
+
+    record Section(UUID world, int x, int z) {
+    }
+
+    private final class Shard {
+
+        private final Section section;
+        private final World world;
+        private final LocalBlockManager manager;
+        private final Queue<LocalBlockManager.Handoff> inbox = new ConcurrentLinkedQueue<>();
+        private final ScheduledTask task;
+        private volatile int blockCount;
+        private boolean started;
+        private boolean closed;
+        private int idleTicks;
+
+        private Shard(Section section, World world) {
+            this.section = section;
+            this.world = world;
+            this.manager = new LocalBlockManager(plugin, new PhysicsEngine(pool), renderer, RegionBlockManager.this, section);
+            this.task = server.getRegionScheduler().runAtFixedRate(plugin, world, anchorX(), anchorZ(), this::tick, 1L, 1L);
+        }
+
+        private int anchorX() {
+            return section.x() << sectionShift;
+        }
+
+        private int anchorZ() {
+            return section.z() << sectionShift;
+        }
+
+        private boolean isOwned() {
+            return server.isOwnedByCurrentRegion(world, anchorX(), anchorZ());
+        }
+
+        private synchronized boolean offer(LocalBlockManager.Handoff handoff) {
+            if (closed) {
+                return false;
+            }
+
+            inbox.add(handoff);
+            return true;
+        }
+
+        private void tick(ScheduledTask scheduledTask) {
+            if (!started) {
+                started = true;
+                restoreLoadedChunks();
+            }
+
+            LocalBlockManager.Handoff handoff;
+            while ((handoff = inbox.poll()) != null) {
+                manager.adopt(handoff);
+            }
+
+            manager.tick();
+            blockCount = manager.getBlockCount();
+            if (server.isStopping()) {
+                manager.flushDirtyChunks();
+            }
+            if (!manager.isIdle() || !inbox.isEmpty()) {
+                idleTicks = 0;
+            } else if (++idleTicks >= RETIRE_TICKS) {
+                retire(scheduledTask);
+            }
+        }
+
+        private void restoreLoadedChunks() {
+            int size = 1 << sectionShift;
+            for (int chunkX = anchorX(); chunkX < anchorX() + size; chunkX++) {
+                for (int chunkZ = anchorZ(); chunkZ < anchorZ() + size; chunkZ++) {
+                    if (server.isOwnedByCurrentRegion(world, chunkX, chunkZ) && world.isChunkLoaded(chunkX, chunkZ)) {
+                        manager.loadChunk(world.getChunkAt(chunkX, chunkZ));
+                    }
+                }
+            }
+        }
+
+        private void retire(ScheduledTask scheduledTask) {
+            synchronized (this) {
+                closed = true;
+            }
+            scheduledTask.cancel();
+            shards.remove(section, this);
+
+            LocalBlockManager.Handoff handoff;
+            while ((handoff = inbox.poll()) != null) {
+                deliver(section, world, handoff);
+            }
+        }
+    }
+}
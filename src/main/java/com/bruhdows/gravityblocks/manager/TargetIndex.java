@@ -0,0 +1,90 @@
+package com.bruhdows.gravityblocks.manager;
+
+import com.bruhdows.gravityblocks.physics.BodyStore;
+import com.bruhdows.gravityblocks.physics.SpatialHash;
+import org.bukkit.util.BoundingBox;
+import org.bukkit.util.RayTraceResult;
+import org.bukkit.util.Vector;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+public class TargetIndex {
+
+    private static final double CELL_SIZE = 2.0;
+
+    private final BodyStore bodies;
+    private final Map<UUID, SpatialHash> worlds = new HashMap<>();
+    private final BoundingBox boundingBox = new BoundingBox();
+    private final SpatialHash.RayVisitor visitor = this::visit;
+
+    private Vector rayStart;
+    private Vector rayDirection;
+    private double rayDistance;
+    private int closest;
+
+    public TargetIndex(BodyStore bodies) {
+        this.bodies = bodies;
+    }
+
+    public void update(int id) {
+        double size = bodies.getSize(id);
+        double x = bodies.getX(id);
+        double y = bodies.getY(id);
+        double z = bodies.getZ(id);
+        worlds.computeIfAbsent(bodies.getWorld(id), key -> new SpatialHash(CELL_SIZE))
+                .update(id, x, y, z, x + size, y + size, z + size);
+    }
+
+    public void remove(UUID world, int id) {
+        SpatialHash grid = worlds.get(world);
+        if (grid != null) {
+            grid.remove(id);
+        }
+    }
+
+    public void unloadWorld(UUID world) {
+        worlds.remove(world);
+    }
+
+    public void clear() {
+        worlds.clear();
+    }
+
+    public int raycast(UUID world, Vector start, Vector direction, double maxDistance) {
+        SpatialHash grid = worlds.get(world);
+        if (grid == null) {
+            return -1;
+        }
+
+        rayStart = start;
+        rayDirection = direction;
+        rayDistance = maxDistance;
+        closest = -1;
+        grid.raycast(start.getX(), start.getY(), start.getZ(),
+                direction.getX(), direction.getY(), direction.getZ(), maxDistance, visitor);
+
+        rayStart = null;
+        rayDirection = null;
+        return closest;
+    }
+
+    private double visit(int id) {
+        double size = bodies.getSize(id);
+        boundingBox.resize(
+                bodies.getX(id), bodies.getY(id), bodies.getZ(id),
+                bodies.getX(id) + size, bodies.getY(id) + size, bodies.getZ(id) + size
+        );
+
+        RayTraceResult result = boundingBox.rayTrace(rayStart, rayDirection, rayDistance);
+        if (result != null) {
+            double distance = result.getHitPosition().distance(rayStart);
+            if (distance < rayDistance) {
+                rayDistance = distance;
+                closest = id;
+            }
+        }
+        return rayDistance;
+    }
+}
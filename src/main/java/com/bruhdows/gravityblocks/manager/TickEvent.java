@@ -0,0 +1,49 @@
+package com.bruhdows.gravityblocks.manager;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+import jdk.jfr.Timespan;
+
+@Name("gravityblocks.Tick")
+@Label("Gravity Block Tick")
+@Description("Main thread part of one gravity block manager tick, including applying the previous physics step")
+@Category("GravityBlocks")
+@StackTrace(false)
+@Threshold("1 ms")
+final class TickEvent extends jdk.jfr.Event {
+
+    static final EventType TYPE = EventType.getEventType(TickEvent.class);
+
+    @Label("World")
+    String world;
+
+    @Label("Section X")
+    int sectionX;
+
+    @Label("Section Z")
+    int sectionZ;
+
+    @Label("Blocks")
+    int blocks;
+
+    @Label("Step Applied")
+    boolean stepApplied;
+
+    @Label("Awake Bodies")
+    int awakeBodies;
+
+    @Label("Contacts")
+    int contacts;
+
+    @Label("Teleports")
+    long teleports;
+
+    @Label("Worker Time")
+    @Timespan
+    long workerNanos;
+}
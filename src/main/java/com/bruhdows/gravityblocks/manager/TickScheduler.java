@@ -0,0 +1,154 @@
+package com.bruhdows.gravityblocks.manager;
+
+import lombok.Getter;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+public class TickScheduler {
+
+    private static final int MAX_LOAD_LEVEL = 3;
+
+    private final long budgetNanos;
+    private final double farDistanceSquared;
+    private final int farInterval;
+    private final int maxCatchUpTicks;
+    private final List<BlockPartition.Bucket> order = new ArrayList<>();
+    private final Map<UUID, List<Location>> players = new HashMap<>();
+
+    @Getter
+    private long currentTick;
+    @Getter
+    private int loadLevel;
+    private int cursor;
+    private long tickStart;
+    private long[] lastStepTicks = new long[64];
+
+    public TickScheduler(double budgetMillis, double farDistance, int farInterval, int maxCatchUpTicks) {
+        this.budgetNanos = (long) (budgetMillis * 1_000_000);
+        this.farDistanceSquared = farDistance * farDistance;
+        this.farInterval = Math.max(1, farInterval);
+        this.maxCatchUpTicks = Math.max(1, maxCatchUpTicks);
+    }
+
+    public void beginTick() {
+        currentTick++;
+        tickStart = System.nanoTime();
+        players.clear();
+    }
+
+    public List<BlockPartition.Bucket> beginCapture(Collection<BlockPartition.Bucket> activeBuckets) {
+        order.clear();
+        if (activeBuckets.isEmpty()) {
+            cursor = 0;
+            return order;
+        }
+
+        int start = cursor % activeBuckets.size();
+        int index = 0;
+        for (BlockPartition.Bucket bucket : activeBuckets) {
+            if (index++ >= start) {
+                order.add(bucket);
+            }
+        }
+
+        index = 0;
+        for (BlockPartition.Bucket bucket : activeBuckets) {
+            if (index++ >= start) {
+                break;
+            }
+            order.add(bucket);
+        }
+
+        cursor = start;
+        return order;
+    }
+
+    public void bucketCaptured() {
+        cursor++;
+    }
+
+    public boolean isOverBudget() {
+        return System.nanoTime() - tickStart > budgetNanos;
+    }
+
+    public void endTick(long workerNanos) {
+        long mainNanos = System.nanoTime() - tickStart;
+        if (mainNanos > budgetNanos || workerNanos > budgetNanos) {
+            loadLevel = Math.min(MAX_LOAD_LEVEL, loadLevel + 1);
+        } else if (loadLevel > 0 && mainNanos < budgetNanos / 2 && workerNanos < budgetNanos / 2) {
+            loadLevel--;
+        }
+    }
+
+    public int bucketInterval(World world, BlockPartition.Bucket bucket) {
+        List<Location> locations = players.computeIfAbsent(world.getUID(), key -> {
+            List<Location> result = new ArrayList<>();
+            for (Player player : world.getPlayers()) {
+                result.add(player.getLocation());
+            }
+            return result;
+        });
+
+        double centerX = (bucket.getChunkX() << 4) + 8;
+        double centerZ = (bucket.getChunkZ() << 4) + 8;
+        boolean near = false;
+        for (Location location : locations) {
+            double dx = location.getX() - centerX;
+            double dz = location.getZ() - centerZ;
+            if (dx * dx + dz * dz <= farDistanceSquared) {
+                near = true;
+                break;
+            }
+        }
+
+        int interval = near ? 1 : farInterval;
+        if (loadLevel > 0) {
+            interval <<= near ? loadLevel - 1 : loadLevel;
+        }
+        return interval;
+    }
+
+    public int stepTicks(int id, int interval) {
+        ensureCapacity(id);
+
+        long lastStepTick = lastStepTicks[id];
+        if (lastStepTick == 0) {
+            lastStepTicks[id] = currentTick;
+            return 1;
+        }
+
+        long elapsed = currentTick - lastStepTick;
+        if (elapsed < interval) {
+            return 0;
+        }
+
+        lastStepTicks[id] = currentTick;
+        return (int) Math.min(elapsed, maxCatchUpTicks);
+    }
+
+    public void touch(int id) {
+        ensureCapacity(id);
+        lastStepTicks[id] = currentTick;
+    }
+
+    public void forget(int id) {
+        if (id < lastStepTicks.length) {
+            lastStepTicks[id] = 0;
+        }
+    }
+
+    private void ensureCapacity(int id) {
+        if (id >= lastStepTicks.length) {
+            lastStepTicks = Arrays.copyOf(lastStepTicks, Math.max(lastStepTicks.length * 2, id + 1));
+        }
+    }
+}
@@ -1,306 +1,129 @@
 package com.bruhdows.gravityblocks.object;
 
+import com.bruhdows.gravityblocks.physics.BodyStore;
+import com.bruhdows.gravityblocks.render.BlockRenderer;
+import com.bruhdows.gravityblocks.render.BlockView;
 import lombok.Getter;
 import org.bukkit.Location;
 import org.bukkit.Material;
-import org.bukkit.entity.BlockDisplay;
-import org.bukkit.entity.Display;
+import org.bukkit.World;
 import org.bukkit.entity.Player;
 import org.bukkit.util.BoundingBox;
 import org.bukkit.util.Vector;
 import org.bukkit.block.data.BlockData;
-import org.bukkit.util.Transformation;
-import org.joml.Vector3f;
 
 @Getter
 public class GravityBlock {
 
-    private final BlockDisplay display;
-    private Vector velocity;
+    private final int id;
+    private final World world;
+    private final BlockData blockData;
     private final double size;
-    private boolean isHeld;
-    private Player holder;
-
-    private static final double GRAVITY = 0.05;
-    private static final double DRAG = 0.985;
-    private static final double GROUND_FRICTION = 0.88;
-    private static final double BOUNCE_DAMPING = 0.65;
-    private static final double MAX_VELOCITY = 4.0;
-    private static final double MIN_BOUNCE_VELOCITY = 0.08;
-
-    private static final double HOLD_DISTANCE = 3.5;
-    private static final double HOLD_SPRING_STRENGTH = 0.25;
-    private static final double HOLD_DAMPING = 0.75;
-    private static final double MAX_HOLD_VELOCITY = 2.0;
-    private static final int VELOCITY_HISTORY_SIZE = 5;
-
-    private Location lastHeldPosition;
-    private final Vector[] velocityHistory;
-    private int velocityHistoryIndex;
-    private int ticksSinceGrabbed;
-    private boolean onGround;
-
-    public GravityBlock(Location location, Material material, double size) {
-        this.display = location.getWorld().spawn(
-                new Location(location.getWorld(), location.getX(), location.getY() + 1, location.getZ()),
-                BlockDisplay.class,
-                display -> {
-                    BlockData blockData = material.createBlockData();
-                    display.setBlock(blockData);
-                    display.setBrightness(new Display.Brightness(15, 15));
-
-                    Transformation transformation = display.getTransformation();
-                    Vector3f scale = new Vector3f((float) size, (float) size, (float) size);
-                    transformation.getScale().set(scale);
-                    display.setTransformation(transformation);
+    private final BodyStore store;
+    private final BlockRenderer renderer;
+    private final BoundingBox boundingBox = new BoundingBox();
+    private BlockView view;
+    private PlayerHolder holder;
+
+    public GravityBlock(BodyStore store, BlockRenderer renderer, Location location, Material material, double size,
+                        double density) {
+        this(store, renderer, new Location(location.getWorld(), location.getX(), location.getY() + 1, location.getZ()),
+                material.createBlockData(), size, density);
+    }
 
-                    display.setInterpolationDuration(2);
-                    display.setInterpolationDelay(-1);
-                }
-        );
+    public GravityBlock(BodyStore store, BlockRenderer renderer, Location location, BlockData blockData, double size,
+                        double density) {
+        this(store, renderer, renderer.create(location, blockData, size), location, blockData, size, density);
+    }
 
-        this.velocity = new Vector(0, 0, 0);
+    public GravityBlock(BodyStore store, BlockRenderer renderer, BlockView view, Location location, BlockData blockData,
+                        double size, double density) {
+        this.world = location.getWorld();
+        this.blockData = blockData;
         this.size = size;
-        this.isHeld = false;
+        this.renderer = renderer;
+        this.view = view;
+
+        this.store = store;
+        this.id = store.allocate(world.getUID(), location.getX(), location.getY(), location.getZ(), size, density);
         this.holder = null;
-        this.velocityHistory = new Vector[VELOCITY_HISTORY_SIZE];
-        for (int i = 0; i < VELOCITY_HISTORY_SIZE; i++) {
-            velocityHistory[i] = new Vector(0, 0, 0);
-        }
-        this.velocityHistoryIndex = 0;
-        this.ticksSinceGrabbed = 0;
-        this.onGround = false;
-        this.lastHeldPosition = null;
     }
 
-    public void tick() {
-        if (isHeld && holder != null) {
-            updateHeldPosition();
-            ticksSinceGrabbed++;
-            return;
-        }
-
-        velocity.setY(velocity.getY() - GRAVITY);
-        velocity.multiply(DRAG);
-
-        if (onGround) {
-            velocity.setX(velocity.getX() * GROUND_FRICTION);
-            velocity.setZ(velocity.getZ() * GROUND_FRICTION);
-        }
-
-        if (velocity.length() > MAX_VELOCITY) {
-            velocity.normalize().multiply(MAX_VELOCITY);
-        }
-
-        Location currentLoc = display.getLocation();
-        Location nextLoc = currentLoc.clone().add(velocity);
-
-        if (checkWorldCollision(nextLoc)) {
-            handleWorldCollision(currentLoc);
-        } else {
-            display.teleport(nextLoc);
-            onGround = false;
-        }
+    public boolean isSuspended() {
+        return view == null;
     }
 
-    private void updateHeldPosition() {
-        if (holder == null || !holder.isOnline()) {
-            release();
+    public void suspend() {
+        if (view == null) {
             return;
         }
 
-        Location eyeLoc = holder.getEyeLocation();
-        Vector direction = eyeLoc.getDirection();
-        Location targetLoc = eyeLoc.add(direction.multiply(HOLD_DISTANCE));
-        Location currentLoc = display.getLocation();
-
-        Vector toTarget = targetLoc.toVector().subtract(currentLoc.toVector());
-        Vector springForce = toTarget.clone().multiply(HOLD_SPRING_STRENGTH);
-
-        velocity.add(springForce);
-        velocity.multiply(HOLD_DAMPING);
-
-        if (velocity.length() > MAX_HOLD_VELOCITY) {
-            velocity.normalize().multiply(MAX_HOLD_VELOCITY);
-        }
-
-        Location newLoc = currentLoc.add(velocity);
-        display.teleport(newLoc);
-
-        if (lastHeldPosition != null) {
-            Vector currentVelocity = newLoc.toVector().subtract(lastHeldPosition.toVector());
-
-            if (ticksSinceGrabbed > 0) {
-                Vector lastVel = velocityHistory[(velocityHistoryIndex - 1 + VELOCITY_HISTORY_SIZE) % VELOCITY_HISTORY_SIZE];
-                currentVelocity = lastVel.clone().multiply(0.3).add(currentVelocity.multiply(0.7));
-            }
-
-            velocityHistory[velocityHistoryIndex] = currentVelocity.clone();
-            velocityHistoryIndex = (velocityHistoryIndex + 1) % VELOCITY_HISTORY_SIZE;
-        }
-
-        lastHeldPosition = newLoc.clone();
+        view.remove();
+        view = null;
     }
 
-    private boolean checkWorldCollision(Location location) {
-        BoundingBox box = getBoundingBox(location);
-
-        int minX = (int) Math.floor(box.getMinX());
-        int minY = (int) Math.floor(box.getMinY());
-        int minZ = (int) Math.floor(box.getMinZ());
-        int maxX = (int) Math.ceil(box.getMaxX());
-        int maxY = (int) Math.ceil(box.getMaxY());
-        int maxZ = (int) Math.ceil(box.getMaxZ());
-
-        for (int x = minX; x <= maxX; x++) {
-            for (int y = minY; y <= maxY; y++) {
-                for (int z = minZ; z <= maxZ; z++) {
-                    Location blockLoc = new Location(location.getWorld(), x, y, z);
-                    if (blockLoc.getBlock().getType().isSolid()) {
-                        return true;
-                    }
-                }
-            }
-        }
-
-        return false;
+    public void detachView() {
+        view = null;
     }
 
-    private void handleWorldCollision(Location currentLoc) {
-        boolean collisionOccurred = false;
-
-        Location testLoc = currentLoc.clone().add(velocity.getX(), 0, 0);
-        if (checkWorldCollision(testLoc)) {
-            velocity.setX(-velocity.getX() * BOUNCE_DAMPING);
-            collisionOccurred = true;
-        }
-
-        testLoc = currentLoc.clone().add(0, velocity.getY(), 0);
-        if (checkWorldCollision(testLoc)) {
-            if (velocity.getY() < 0) {
-                onGround = true;
-            }
-
-            if (Math.abs(velocity.getY()) < MIN_BOUNCE_VELOCITY) {
-                velocity.setY(0);
-            } else {
-                velocity.setY(-velocity.getY() * BOUNCE_DAMPING);
-            }
-            collisionOccurred = true;
+    public void resume() {
+        if (view == null) {
+            view = renderer.create(getLocation(), blockData, size);
         }
+    }
 
-        testLoc = currentLoc.clone().add(0, 0, velocity.getZ());
-        if (checkWorldCollision(testLoc)) {
-            velocity.setZ(-velocity.getZ() * BOUNCE_DAMPING);
-            collisionOccurred = true;
+    public void prepareStep(double[] eye) {
+        if (!store.isHeld(id) || holder == null) {
+            return;
         }
 
-        if (!collisionOccurred) {
-            Location safeLoc = currentLoc.clone();
-            if (!checkWorldCollision(currentLoc.clone().add(velocity.getX(), 0, 0))) {
-                safeLoc.add(velocity.getX(), 0, 0);
-            }
-            if (!checkWorldCollision(currentLoc.clone().add(0, velocity.getY(), 0))) {
-                safeLoc.add(0, velocity.getY(), 0);
-            }
-            if (!checkWorldCollision(currentLoc.clone().add(0, 0, velocity.getZ()))) {
-                safeLoc.add(0, 0, velocity.getZ());
-            }
-            display.teleport(safeLoc);
+        if (holder.sampleEye(eye)) {
+            store.aim(id, eye);
         }
     }
 
-    public boolean checkCollisionWith(GravityBlock other) {
-        if (this == other) return false;
-
-        BoundingBox thisBox = getBoundingBox(display.getLocation());
-        BoundingBox otherBox = other.getBoundingBox(other.display.getLocation());
-
-        return thisBox.overlaps(otherBox);
+    public Player getHolder() {
+        return holder != null ? holder.player() : null;
     }
 
-    public void handleCollisionWith(GravityBlock other) {
-        Location thisLoc = display.getLocation();
-        Location otherLoc = other.display.getLocation();
-        Vector collisionNormal = thisLoc.toVector().subtract(otherLoc.toVector()).normalize();
-
-        Vector relativeVel = velocity.clone().subtract(other.velocity);
-        double velAlongNormal = relativeVel.dot(collisionNormal);
-
-        if (velAlongNormal > 0) return;
-
-        double restitution = 0.7;
-        double impulse = -(1 + restitution) * velAlongNormal;
-        impulse /= 2;
-
-        Vector impulseVec = collisionNormal.clone().multiply(impulse);
-        velocity.add(impulseVec);
-        other.velocity.subtract(impulseVec);
+    public boolean isHeld() {
+        return store.isHeld(id);
+    }
 
-        Vector separation = collisionNormal.multiply(0.05);
-        display.teleport(thisLoc.add(separation));
-        other.display.teleport(otherLoc.subtract(separation));
+    public BoundingBox getBoundingBox() {
+        double x = store.getX(id);
+        double y = store.getY(id);
+        double z = store.getZ(id);
+        return boundingBox.resize(x, y, z, x + size, y + size, z + size);
     }
 
-    public BoundingBox getBoundingBox(Location location) {
-        return new BoundingBox(
-                location.getX(),
-                location.getY(),
-                location.getZ(),
-                location.getX() + size,
-                location.getY() + size,
-                location.getZ() + size
-        );
+    public double getMass() {
+        return store.getMass(id);
     }
 
     public void grab(Player player) {
-        this.isHeld = true;
-        this.holder = player;
-        this.velocity.setX(0).setY(0).setZ(0);
-        this.lastHeldPosition = display.getLocation().clone();
-        this.ticksSinceGrabbed = 0;
-        this.onGround = false;
-
-        for (int i = 0; i < VELOCITY_HISTORY_SIZE; i++) {
-            velocityHistory[i] = new Vector(0, 0, 0);
-        }
-        this.velocityHistoryIndex = 0;
+        this.holder = new PlayerHolder(player);
+        store.grab(id);
     }
 
     public void release() {
-        if (this.isHeld && ticksSinceGrabbed > 2) {
-            Vector avgVelocity = new Vector(0, 0, 0);
-            int samplesUsed = Math.min(ticksSinceGrabbed, VELOCITY_HISTORY_SIZE);
-
-            for (int i = 0; i < samplesUsed; i++) {
-                avgVelocity.add(velocityHistory[i]);
-            }
-
-            avgVelocity.multiply(1.0 / samplesUsed);
-
-            double momentumMultiplier = 1.8;
-            this.velocity = avgVelocity.multiply(momentumMultiplier);
-
-            if (this.velocity.length() > MAX_VELOCITY) {
-                this.velocity.normalize().multiply(MAX_VELOCITY);
-            }
-        }
-
-        this.isHeld = false;
+        store.release(id);
         this.holder = null;
-        this.lastHeldPosition = null;
     }
 
     public void throwBlock(Vector direction, double power) {
-        release();
-        this.velocity = direction.normalize().multiply(power);
+        store.throwBody(id, direction.getX(), direction.getY(), direction.getZ(), power);
+        this.holder = null;
     }
 
     public void remove() {
-        display.remove();
+        if (view != null) {
+            view.remove();
+        }
+        store.remove(id);
     }
 
     public Location getLocation() {
-        return display.getLocation();
+        return new Location(world, store.getX(id), store.getY(id), store.getZ(id));
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,26 @@
+package com.bruhdows.gravityblocks.object;
+
+import com.bruhdows.gravityblocks.physics.Holder;
+import org.bukkit.Location;
+import org.bukkit.entity.Player;
+import org.bukkit.util.Vector;
+
+public record PlayerHolder(Player player) implements Holder {
+
+    @Override
+    public boolean sampleEye(double[] eye) {
+        if (!player.isOnline()) {
+            return false;
+        }
+
+        Location eyeLocation = player.getEyeLocation();
+        Vector direction = eyeLocation.getDirection();
+        eye[EYE_X] = eyeLocation.getX();
+        eye[EYE_Y] = eyeLocation.getY();
+        eye[EYE_Z] = eyeLocation.getZ();
+        eye[DIRECTION_X] = direction.getX();
+        eye[DIRECTION_Y] = direction.getY();
+        eye[DIRECTION_Z] = direction.getZ();
+        return true;
+    }
+}
@@ -0,0 +1,540 @@
+package com.bruhdows.gravityblocks.physics;
+
+import java.util.Arrays;
+import java.util.UUID;
+
+public class BodyStore {
+
+    public static final int VELOCITY_HISTORY_SIZE = 5;
+    public static final double HOLD_DISTANCE = 3.5;
+
+    static final byte HELD = 1;
+    static final byte ON_GROUND = 1 << 1;
+    static final byte HAS_LAST_HELD = 1 << 2;
+    static final byte SLEEPING = 1 << 3;
+    static final byte FROZEN = 1 << 4;
+    static final byte INACTIVE = SLEEPING | FROZEN;
+
+    private static final double MOMENTUM_MULTIPLIER = 1.8;
+
+    private final IntList freeIds = new IntList();
+    private IntList removedIds = new IntList();
+    private int capacity;
+    private int nextId;
+    private int count;
+
+    int[] denseIds;
+    int[] denseIndex;
+    UUID[] worlds;
+    int[] versions;
+    byte[] flags;
+    double[] size;
+    double[] inverseMass;
+    double[] position;
+    double[] velocity;
+    double[] holdTarget;
+    double[] lastHeld;
+    double[] history;
+    int[] historyIndex;
+    int[] ticksSinceGrabbed;
+    int[] restTicks;
+    int[] stepTicks;
+    Compound[] compounds;
+
+    public BodyStore() {
+        this(64);
+    }
+
+    public BodyStore(int capacity) {
+        this.capacity = Math.max(1, capacity);
+        this.denseIds = new int[this.capacity];
+        this.denseIndex = new int[this.capacity];
+        this.worlds = new UUID[this.capacity];
+        this.versions = new int[this.capacity];
+        this.flags = new byte[this.capacity];
+        this.size = new double[this.capacity];
+        this.inverseMass = new double[this.capacity];
+        this.position = new double[this.capacity * 3];
+        this.velocity = new double[this.capacity * 3];
+        this.holdTarget = new double[this.capacity * 3];
+        this.lastHeld = new double[this.capacity * 3];
+        this.history = new double[this.capacity * VELOCITY_HISTORY_SIZE * 3];
+        this.historyIndex = new int[this.capacity];
+        this.ticksSinceGrabbed = new int[this.capacity];
+        this.restTicks = new int[this.capacity];
+        this.stepTicks = new int[this.capacity];
+        this.compounds = new Compound[this.capacity];
+        Arrays.fill(denseIndex, -1);
+    }
+
+    public int allocate(UUID world, double x, double y, double z, double bodySize) {
+        return allocate(world, x, y, z, bodySize, 1.0);
+    }
+
+    public int allocate(UUID world, double x, double y, double z, double bodySize, double density) {
+        if (!(bodySize > 0) || !(density > 0) || Double.isInfinite(bodySize) || Double.isInfinite(density)) {
+            throw new IllegalArgumentException("Body size and density must be positive and finite, got " + bodySize + " and " + density);
+        }
+
+        int id = freeIds.isEmpty() ? nextId++ : freeIds.pop();
+        ensureCapacity(id + 1);
+
+        denseIds[count] = id;
+        denseIndex[id] = count++;
+        worlds[id] = world;
+        versions[id]++;
+        flags[id] = 0;
+        size[id] = bodySize;
+        inverseMass[id] = 1 / (density * bodySize * bodySize * bodySize);
+        setVector(position, id, x, y, z);
+        setVector(velocity, id, 0, 0, 0);
+        setVector(holdTarget, id, 0, 0, 0);
+        setVector(lastHeld, id, 0, 0, 0);
+        Arrays.fill(history, id * VELOCITY_HISTORY_SIZE * 3, (id + 1) * VELOCITY_HISTORY_SIZE * 3, 0);
+        historyIndex[id] = 0;
+        ticksSinceGrabbed[id] = 0;
+        restTicks[id] = 0;
+        stepTicks[id] = 0;
+        compounds[id] = null;
+        return id;
+    }
+
+    public void remove(int id) {
+        if (!isActive(id)) {
+            return;
+        }
+
+        leave(id);
+
+        int index = denseIndex[id];
+        int last = denseIds[--count];
+        denseIds[index] = last;
+        denseIndex[last] = index;
+        denseIndex[id] = -1;
+        worlds[id] = null;
+        versions[id]++;
+
+        freeIds.add(id);
+        removedIds.add(id);
+    }
+
+    public IntList drainRemovedIds() {
+        IntList drained = removedIds;
+        removedIds = new IntList();
+        return drained;
+    }
+
+    public void copyFrom(BodyStore other) {
+        ensureCapacity(other.capacity);
+
+        int ids = other.nextId;
+        System.arraycopy(other.denseIds, 0, denseIds, 0, other.count);
+        System.arraycopy(other.denseIndex, 0, denseIndex, 0, ids);
+        System.arraycopy(other.worlds, 0, worlds, 0, ids);
+        System.arraycopy(other.versions, 0, versions, 0, ids);
+        System.arraycopy(other.flags, 0, flags, 0, ids);
+        System.arraycopy(other.size, 0, size, 0, ids);
+        System.arraycopy(other.inverseMass, 0, inverseMass, 0, ids);
+        System.arraycopy(other.position, 0, position, 0, ids * 3);
+        System.arraycopy(other.velocity, 0, velocity, 0, ids * 3);
+        System.arraycopy(other.holdTarget, 0, holdTarget, 0, ids * 3);
+        System.arraycopy(other.lastHeld, 0, lastHeld, 0, ids * 3);
+        System.arraycopy(other.history, 0, history, 0, ids * VELOCITY_HISTORY_SIZE * 3);
+        System.arraycopy(other.historyIndex, 0, historyIndex, 0, ids);
+        System.arraycopy(other.ticksSinceGrabbed, 0, ticksSinceGrabbed, 0, ids);
+        System.arraycopy(other.restTicks, 0, restTicks, 0, ids);
+        System.arraycopy(other.stepTicks, 0, stepTicks, 0, ids);
+        System.arraycopy(other.compounds, 0, compounds, 0, ids);
+        Arrays.fill(denseIndex, ids, capacity, -1);
+        nextId = ids;
+        count = other.count;
+    }
+
+    public void copyBody(BodyStore other, int id) {
+        flags[id] = other.flags[id];
+        System.arraycopy(other.position, id * 3, position, id * 3, 3);
+        System.arraycopy(other.velocity, id * 3, velocity, id * 3, 3);
+        System.arraycopy(other.holdTarget, id * 3, holdTarget, id * 3, 3);
+        System.arraycopy(other.lastHeld, id * 3, lastHeld, id * 3, 3);
+        System.arraycopy(other.history, id * VELOCITY_HISTORY_SIZE * 3, history, id * VELOCITY_HISTORY_SIZE * 3, VELOCITY_HISTORY_SIZE * 3);
+        historyIndex[id] = other.historyIndex[id];
+        ticksSinceGrabbed[id] = other.ticksSinceGrabbed[id];
+        restTicks[id] = other.restTicks[id];
+    }
+
+    public int size() {
+        return count;
+    }
+
+    public int idAt(int index) {
+        return denseIds[index];
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public boolean isActive(int id) {
+        return id >= 0 && id < capacity && denseIndex[id] >= 0;
+    }
+
+    public UUID getWorld(int id) {
+        return worlds[id];
+    }
+
+    public int getVersion(int id) {
+        return versions[id];
+    }
+
+    public double getSize(int id) {
+        return size[id];
+    }
+
+    public double getMass(int id) {
+        Compound compound = compounds[id];
+        return compound != null ? 1 / compound.inverseMass : 1 / inverseMass[id];
+    }
+
+    public double getBodyMass(int id) {
+        return 1 / inverseMass[id];
+    }
+
+    public double getX(int id) {
+        return position[id * 3];
+    }
+
+    public double getY(int id) {
+        return position[id * 3 + 1];
+    }
+
+    public double getZ(int id) {
+        return position[id * 3 + 2];
+    }
+
+    public double getVelocityX(int id) {
+        return velocity[id * 3];
+    }
+
+    public double getVelocityY(int id) {
+        return velocity[id * 3 + 1];
+    }
+
+    public double getVelocityZ(int id) {
+        return velocity[id * 3 + 2];
+    }
+
+    public boolean isHeld(int id) {
+        return hasFlag(getRoot(id), HELD);
+    }
+
+    public boolean isOnGround(int id) {
+        return hasFlag(getRoot(id), ON_GROUND);
+    }
+
+    public boolean isSleeping(int id) {
+        return hasFlag(getRoot(id), SLEEPING);
+    }
+
+    public boolean isFrozen(int id) {
+        return hasFlag(id, FROZEN);
+    }
+
+    public boolean isInactive(int id) {
+        return hasFlag(id, INACTIVE);
+    }
+
+    public void freeze(int id) {
+        if (hasFlag(id, FROZEN)) {
+            return;
+        }
+
+        setFlag(id, FROZEN, true);
+        versions[id]++;
+    }
+
+    public void unfreeze(int id) {
+        if (!hasFlag(id, FROZEN)) {
+            return;
+        }
+
+        flags[id] = (byte) (flags[id] & ~(FROZEN | SLEEPING));
+        restTicks[id] = 0;
+        versions[id]++;
+    }
+
+    public void setVelocity(int id, double x, double y, double z) {
+        setVector(velocity, getRoot(id), x, y, z);
+    }
+
+    public void sleep(int id) {
+        int root = getRoot(id);
+        setFlag(root, SLEEPING, true);
+        setVector(velocity, root, 0, 0, 0);
+    }
+
+    public void wake(int id) {
+        int root = getRoot(id);
+        setFlag(root, SLEEPING, false);
+        restTicks[root] = 0;
+    }
+
+    public int getStepTicks(int id) {
+        return stepTicks[id];
+    }
+
+    public void setStepTicks(int id, int ticks) {
+        stepTicks[id] = ticks;
+    }
+
+    public void clearStepTicks() {
+        Arrays.fill(stepTicks, 0, nextId, 0);
+    }
+
+    public void setHoldTarget(int id, double x, double y, double z) {
+        setVector(holdTarget, id, x, y, z);
+    }
+
+    public void aim(int id, double[] eye) {
+        int root = getRoot(id);
+        setVector(holdTarget, root,
+                eye[Holder.EYE_X] + eye[Holder.DIRECTION_X] * HOLD_DISTANCE - getX(id) + getX(root),
+                eye[Holder.EYE_Y] + eye[Holder.DIRECTION_Y] * HOLD_DISTANCE - getY(id) + getY(root),
+                eye[Holder.EYE_Z] + eye[Holder.DIRECTION_Z] * HOLD_DISTANCE - getZ(id) + getZ(root));
+    }
+
+    public void grab(int member) {
+        int id = getRoot(member);
+        setVector(velocity, id, 0, 0, 0);
+        System.arraycopy(position, id * 3, lastHeld, id * 3, 3);
+        flags[id] = (byte) ((flags[id] | HELD | HAS_LAST_HELD) & ~(ON_GROUND | SLEEPING));
+        restTicks[id] = 0;
+        ticksSinceGrabbed[id] = 0;
+
+        Arrays.fill(history, id * VELOCITY_HISTORY_SIZE * 3, (id + 1) * VELOCITY_HISTORY_SIZE * 3, 0);
+        historyIndex[id] = 0;
+        touch(id);
+    }
+
+    public void release(int member) {
+        int id = getRoot(member);
+        if (isHeld(id) && ticksSinceGrabbed[id] > 2) {
+            int samplesUsed = Math.min(ticksSinceGrabbed[id], VELOCITY_HISTORY_SIZE);
+            int base = id * VELOCITY_HISTORY_SIZE * 3;
+            double avgX = 0;
+            double avgY = 0;
+            double avgZ = 0;
+
+            for (int i = 0; i < samplesUsed; i++) {
+                avgX += history[base + i * 3];
+                avgY += history[base + i * 3 + 1];
+                avgZ += history[base + i * 3 + 2];
+            }
+
+            double scale = MOMENTUM_MULTIPLIER / samplesUsed;
+            setVector(velocity, id, avgX * scale, avgY * scale, avgZ * scale);
+            PhysicsEngine.clampVelocity(this, id, PhysicsEngine.MAX_VELOCITY);
+        }
+
+        flags[id] = (byte) (flags[id] & ~(HELD | HAS_LAST_HELD | SLEEPING));
+        restTicks[id] = 0;
+        touch(id);
+    }
+
+    public void throwBody(int member, double directionX, double directionY, double directionZ, double power) {
+        int id = getRoot(member);
+        release(id);
+
+        double length = Math.sqrt(directionX * directionX + directionY * directionY + directionZ * directionZ);
+        if (length == 0) {
+            return;
+        }
+
+        setVector(velocity, id, directionX / length * power, directionY / length * power, directionZ / length * power);
+    }
+
+    public int getRoot(int id) {
+        Compound compound = compounds[id];
+        return compound != null ? compound.root : id;
+    }
+
+    public boolean isCompound(int id) {
+        return compounds[id] != null;
+    }
+
+    public int[] getMembers(int id) {
+        Compound compound = compounds[id];
+        return compound != null ? compound.members.clone() : new int[]{id};
+    }
+
+    public double getShapeMinX(int id) {
+        Compound compound = compounds[id];
+        return compound != null ? getX(compound.root) + compound.bounds[0] : getX(id);
+    }
+
+    public double getShapeMinZ(int id) {
+        Compound compound = compounds[id];
+        return compound != null ? getZ(compound.root) + compound.bounds[2] : getZ(id);
+    }
+
+    public double getShapeMaxX(int id) {
+        Compound compound = compounds[id];
+        return compound != null ? getX(compound.root) + compound.bounds[3] : getX(id) + size[id];
+    }
+
+    public double getShapeMaxZ(int id) {
+        Compound compound = compounds[id];
+        return compound != null ? getZ(compound.root) + compound.bounds[5] : getZ(id) + size[id];
+    }
+
+    public int join(int[] ids) {
+        for (int id : ids) {
+            leave(id);
+        }
+        if (ids.length < 2) {
+            return ids.length == 1 ? ids[0] : -1;
+        }
+
+        int root = ids[0];
+        double momentumX = 0;
+        double momentumY = 0;
+        double momentumZ = 0;
+        double mass = 0;
+        for (int id : ids) {
+            double bodyMass = 1 / inverseMass[id];
+            momentumX += getVelocityX(id) * bodyMass;
+            momentumY += getVelocityY(id) * bodyMass;
+            momentumZ += getVelocityZ(id) * bodyMass;
+            mass += bodyMass;
+        }
+        setVector(velocity, root, momentumX / mass, momentumY / mass, momentumZ / mass);
+
+        Compound compound = Compound.of(this, root, ids.clone());
+        for (int id : ids) {
+            compounds[id] = compound;
+            flags[id] = (byte) (flags[id] & FROZEN);
+            restTicks[id] = 0;
+        }
+        syncCompound(root);
+        touch(root);
+        return root;
+    }
+
+    public void leave(int id) {
+        Compound compound = compounds[id];
+        if (compound == null) {
+            return;
+        }
+
+        int[] remaining = new int[compound.members.length - 1];
+        int index = 0;
+        for (int member : compound.members) {
+            if (member != id) {
+                remaining[index++] = member;
+            }
+        }
+
+        int root = compound.root == id ? remaining[0] : compound.root;
+        if (root != compound.root) {
+            transferRoot(compound.root, root);
+        }
+
+        compounds[id] = null;
+        setFlag(id, (byte) (HELD | HAS_LAST_HELD), false);
+        versions[id]++;
+
+        if (remaining.length == 1) {
+            compounds[root] = null;
+            versions[root]++;
+            return;
+        }
+
+        Compound rest = Compound.of(this, root, remaining);
+        for (int member : remaining) {
+            compounds[member] = rest;
+        }
+        touch(root);
+    }
+
+    void syncCompound(int root) {
+        Compound compound = compounds[root];
+        int rootOffset = root * 3;
+        for (int i = 0; i < compound.members.length; i++) {
+            int member = compound.members[i];
+            if (member == root) {
+                continue;
+            }
+
+            int offset = member * 3;
+            for (int axis = 0; axis < 3; axis++) {
+                position[offset + axis] = position[rootOffset + axis] + compound.offsets[i * 3 + axis];
+                velocity[offset + axis] = velocity[rootOffset + axis];
+            }
+            flags[member] = (byte) ((flags[member] & FROZEN) | (flags[root] & ~FROZEN));
+        }
+    }
+
+    private void transferRoot(int from, int to) {
+        flags[to] = (byte) ((flags[to] & FROZEN) | (flags[from] & ~(FROZEN | HAS_LAST_HELD)));
+        System.arraycopy(velocity, from * 3, velocity, to * 3, 3);
+        for (int axis = 0; axis < 3; axis++) {
+            holdTarget[to * 3 + axis] = holdTarget[from * 3 + axis] + position[to * 3 + axis] - position[from * 3 + axis];
+        }
+        restTicks[to] = restTicks[from];
+        ticksSinceGrabbed[to] = ticksSinceGrabbed[from];
+        stepTicks[to] = stepTicks[from];
+    }
+
+    private void touch(int id) {
+        Compound compound = compounds[id];
+        if (compound == null) {
+            versions[id]++;
+            return;
+        }
+
+        for (int member : compound.members) {
+            versions[member]++;
+        }
+    }
+
+    boolean hasFlag(int id, byte flag) {
+        return (flags[id] & flag) != 0;
+    }
+
+    void setFlag(int id, byte flag, boolean value) {
+        flags[id] = (byte) (value ? flags[id] | flag : flags[id] & ~flag);
+    }
+
+    private static void setVector(double[] array, int id, double x, double y, double z) {
+        int offset = id * 3;
+        array[offset] = x;
+        array[offset + 1] = y;
+        array[offset + 2] = z;
+    }
+
+    private void ensureCapacity(int required) {
+        if (required <= capacity) {
+            return;
+        }
+
+        int newCapacity = Math.max(capacity * 2, required);
+        denseIds = Arrays.copyOf(denseIds, newCapacity);
+        denseIndex = Arrays.copyOf(denseIndex, newCapacity);
+        Arrays.fill(denseIndex, capacity, newCapacity, -1);
+        worlds = Arrays.copyOf(worlds, newCapacity);
+        versions = Arrays.copyOf(versions, newCapacity);
+        flags = Arrays.copyOf(flags, newCapacity);
+        size = Arrays.copyOf(size, newCapacity);
+        inverseMass = Arrays.copyOf(inverseMass, newCapacity);
+        position = Arrays.copyOf(position, newCapacity * 3);
+        velocity = Arrays.copyOf(velocity, newCapacity * 3);
+        holdTarget = Arrays.copyOf(holdTarget, newCapacity * 3);
+        lastHeld = Arrays.copyOf(lastHeld, newCapacity * 3);
+        history = Arrays.copyOf(history, newCapacity * VELOCITY_HISTORY_SIZE * 3);
+        historyIndex = Arrays.copyOf(historyIndex, newCapacity);
+        ticksSinceGrabbed = Arrays.copyOf(ticksSinceGrabbed, newCapacity);
+        restTicks = Arrays.copyOf(restTicks, newCapacity);
+        stepTicks = Arrays.copyOf(stepTicks, newCapacity);
+        compounds = Arrays.copyOf(compounds, newCapacity);
+        capacity = newCapacity;
+    }
+}
@@ -0,0 +1,96 @@
+package com.bruhdows.gravityblocks.physics;
+
+import java.util.HashMap;
+import java.util.Map;
+
+final class Compound {
+
+    private static final double KEY_SCALE = 256;
+
+    final int root;
+    final int[] members;
+    final double[] offsets;
+    final double[] bounds;
+    final int[][] faces;
+    final int[] surface;
+    final double inverseMass;
+
+    private Compound(int root, int[] members, double[] offsets, double[] bounds, int[][] faces, int[] surface,
+                     double inverseMass) {
+        this.root = root;
+        this.members = members;
+        this.offsets = offsets;
+        this.bounds = bounds;
+        this.faces = faces;
+        this.surface = surface;
+        this.inverseMass = inverseMass;
+    }
+
+    static Compound of(BodyStore store, int root, int[] members) {
+        double[] position = store.position;
+        double[] size = store.size;
+        double[] offsets = new double[members.length * 3];
+        double[] bounds = {
+                Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY,
+                Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY
+        };
+        Map<Long, Integer> slots = new HashMap<>();
+        double mass = 0;
+
+        for (int i = 0; i < members.length; i++) {
+            int member = members[i];
+            for (int axis = 0; axis < 3; axis++) {
+                double offset = position[member * 3 + axis] - position[root * 3 + axis];
+                offsets[i * 3 + axis] = offset;
+                bounds[axis] = Math.min(bounds[axis], offset);
+                bounds[axis + 3] = Math.max(bounds[axis + 3], offset + size[member]);
+            }
+            slots.put(key(offsets, i, -1, 0), i);
+            mass += 1 / store.inverseMass[member];
+        }
+
+        int[][] faces = new int[6][];
+        boolean[] onSurface = new boolean[members.length];
+        IntList exposed = new IntList(members.length);
+        for (int face = 0; face < 6; face++) {
+            int axis = face >> 1;
+            double direction = (face & 1) == 0 ? -1 : 1;
+            exposed.clear();
+
+            for (int i = 0; i < members.length; i++) {
+                double memberSize = size[members[i]];
+                Integer neighbour = slots.get(key(offsets, i, axis, direction * memberSize));
+                if (neighbour == null || size[members[neighbour]] != memberSize) {
+                    exposed.add(members[i]);
+                    onSurface[i] = true;
+                }
+            }
+
+            faces[face] = new int[exposed.size()];
+            for (int i = 0; i < exposed.size(); i++) {
+                faces[face][i] = exposed.get(i);
+            }
+        }
+
+        exposed.clear();
+        for (int i = 0; i < members.length; i++) {
+            if (onSurface[i]) {
+                exposed.add(members[i]);
+            }
+        }
+
+        int[] surface = new int[exposed.size()];
+        for (int i = 0; i < surface.length; i++) {
+            surface[i] = exposed.get(i);
+        }
+
+        return new Compound(root, members, offsets, bounds, faces, surface, 1 / mass);
+    }
+
+    private static long key(double[] offsets, int index, int axis, double shift) {
+        long x = Math.round((offsets[index * 3] + (axis == 0 ? shift : 0)) * KEY_SCALE);
+        long y = Math.round((offsets[index * 3 + 1] + (axis == 1 ? shift : 0)) * KEY_SCALE);
+        long z = Math.round((offsets[index * 3 + 2] + (axis == 2 ? shift : 0)) * KEY_SCALE);
+        return ((x & 0x1FFFFF) << 42) | ((y & 0x1FFFFF) << 21) | (z & 0x1FFFFF);
+    }
+}
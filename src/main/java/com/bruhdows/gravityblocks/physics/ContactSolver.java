@@ -0,0 +1,202 @@
+package com.bruhdows.gravityblocks.physics;
+
+import java.util.Arrays;
+
+final class ContactSolver {
+
+    static final int WORLD = -1;
+
+    private static final int ITERATIONS = 8;
+    private static final int POSITION_ITERATIONS = 4;
+    private static final double RESTITUTION = 0.7;
+    private static final double FRICTION = 0.5;
+    private static final double SLOP = 0.01;
+    private static final double CORRECTION = 0.8;
+    private static final double WARM_START = 1.0;
+    private static final long PAIR_MIX = 0x9E3779B97F4A7C15L;
+
+    private int count;
+    private int[] bodyA = new int[64];
+    private int[] bodyB = new int[64];
+    private int[] memberA = new int[64];
+    private int[] memberB = new int[64];
+    private int[] axis = new int[64];
+    private double[] sign = new double[64];
+    private double[] bias = new double[64];
+    private double[] inverseMassA = new double[64];
+    private double[] inverseMassB = new double[64];
+    private double[] impulse = new double[64];
+    private double[] friction = new double[64 * 2];
+    private SolidityView[] solidity = new SolidityView[64];
+    private final double[] delta = new double[3];
+
+    private LongIntMap cache = new LongIntMap(64);
+    private LongIntMap previousCache = new LongIntMap(64);
+    private int[] previousAxis = new int[64];
+    private double[] previousImpulse = new double[64];
+    private double[] previousFriction = new double[64 * 2];
+
+    void begin() {
+        LongIntMap swapped = previousCache;
+        previousCache = cache;
+        cache = swapped;
+        cache.clear();
+
+        int[] axes = previousAxis;
+        previousAxis = axis;
+        axis = axes;
+        double[] impulses = previousImpulse;
+        previousImpulse = impulse;
+        impulse = impulses;
+        double[] frictions = previousFriction;
+        previousFriction = friction;
+        friction = frictions;
+
+        Arrays.fill(solidity, 0, count, null);
+        count = 0;
+    }
+
+    int size() {
+        return count;
+    }
+
+    void add(int a, int b, int contactA, int contactB, int normalAxis, double normalSign, double penetration,
+             double approach, double inverseMassA, double inverseMassB, int ticks, SolidityView view) {
+        ensureCapacity(count + 1);
+
+        int index = count++;
+        bodyA[index] = a;
+        bodyB[index] = b;
+        axis[index] = normalAxis;
+        sign[index] = normalSign;
+        memberA[index] = contactA;
+        memberB[index] = contactB;
+        double gap = Math.min(0, penetration) / Math.max(1, ticks);
+        bias[index] = approach < gap && approach < -PhysicsEngine.MIN_BOUNCE_VELOCITY ? -approach * RESTITUTION : gap;
+        this.inverseMassA[index] = inverseMassA;
+        this.inverseMassB[index] = inverseMassB;
+        solidity[index] = view;
+        impulse[index] = 0;
+        friction[index * 2] = 0;
+        friction[index * 2 + 1] = 0;
+
+        long key = pairKey(a, b);
+        int previous = previousCache.get(key, -1);
+        if (previous >= 0 && previousAxis[previous] == normalAxis) {
+            impulse[index] = previousImpulse[previous] * WARM_START;
+            friction[index * 2] = previousFriction[previous * 2] * WARM_START;
+            friction[index * 2 + 1] = previousFriction[previous * 2 + 1] * WARM_START;
+        }
+        cache.put(key, index);
+    }
+
+    void solve(BodyStore store) {
+        double[] velocity = store.velocity;
+        for (int i = 0; i < count; i++) {
+            int normal = axis[i];
+            apply(velocity, i, normal, impulse[i] * sign[i]);
+            apply(velocity, i, (normal + 1) % 3, friction[i * 2]);
+            apply(velocity, i, (normal + 2) % 3, friction[i * 2 + 1]);
+        }
+
+        for (int iteration = 0; iteration < ITERATIONS; iteration++) {
+            for (int i = 0; i < count; i++) {
+                int offsetA = bodyA[i] * 3;
+                int offsetB = bodyB[i] * 3;
+                boolean world = bodyB[i] == WORLD;
+                int normal = axis[i];
+                double mass = 1 / (inverseMassA[i] + inverseMassB[i]);
+
+                double normalVelocity = (velocity[offsetA + normal] - (world ? 0 : velocity[offsetB + normal])) * sign[i];
+                double previous = impulse[i];
+                impulse[i] = Math.max(0, previous + (bias[i] - normalVelocity) * mass);
+                apply(velocity, i, normal, (impulse[i] - previous) * sign[i]);
+
+                double limit = impulse[i] * FRICTION;
+                for (int tangent = 0; tangent < 2; tangent++) {
+                    int tangentAxis = (normal + 1 + tangent) % 3;
+                    int frictionIndex = i * 2 + tangent;
+                    double tangentVelocity = velocity[offsetA + tangentAxis] - (world ? 0 : velocity[offsetB + tangentAxis]);
+                    double previousFriction = friction[frictionIndex];
+                    friction[frictionIndex] = Math.max(-limit, Math.min(limit, previousFriction - tangentVelocity * mass));
+                    apply(velocity, i, tangentAxis, friction[frictionIndex] - previousFriction);
+                }
+            }
+        }
+    }
+
+    void correctPositions(BodyStore store, SweptAabb sweep) {
+        for (int iteration = 0; iteration < POSITION_ITERATIONS; iteration++) {
+            for (int i = 0; i < count; i++) {
+                if (bodyB[i] != WORLD) {
+                    correct(store, sweep, i);
+                }
+            }
+        }
+    }
+
+    private void correct(BodyStore store, SweptAabb sweep, int i) {
+        double[] position = store.position;
+        int normal = axis[i];
+        int offsetA = memberA[i] * 3 + normal;
+        int offsetB = memberB[i] * 3 + normal;
+        double depth = Math.min(position[offsetA] + store.size[memberA[i]], position[offsetB] + store.size[memberB[i]])
+                - Math.max(position[offsetA], position[offsetB]);
+        double correction = Math.max(0, depth - SLOP) * CORRECTION / (inverseMassA[i] + inverseMassB[i]);
+        if (correction == 0) {
+            return;
+        }
+
+        double shareA = correction * inverseMassA[i];
+        double shortfall = shareA - move(store, sweep, i, bodyA[i], normal, shareA * sign[i]);
+        if (inverseMassB[i] > 0) {
+            double shareB = correction * inverseMassB[i] + shortfall;
+            shortfall = shareB - move(store, sweep, i, bodyB[i], normal, -shareB * sign[i]);
+            if (shortfall > 0) {
+                move(store, sweep, i, bodyA[i], normal, shortfall * sign[i]);
+            }
+        }
+    }
+
+    private double move(BodyStore store, SweptAabb sweep, int contact, int body, int normal, double distance) {
+        delta[0] = 0;
+        delta[1] = 0;
+        delta[2] = 0;
+        delta[normal] = distance;
+
+        double before = store.position[body * 3 + normal];
+        PhysicsEngine.sweepBody(store, sweep, solidity[contact], body, delta[0], delta[1], delta[2]);
+        return Math.abs(store.position[body * 3 + normal] - before);
+    }
+
+    private void apply(double[] velocity, int contact, int velocityAxis, double amount) {
+        velocity[bodyA[contact] * 3 + velocityAxis] += amount * inverseMassA[contact];
+        if (inverseMassB[contact] > 0) {
+            velocity[bodyB[contact] * 3 + velocityAxis] -= amount * inverseMassB[contact];
+        }
+    }
+
+    private static long pairKey(int a, int b) {
+        return (((long) Math.min(a, b) << 32) | Math.max(a, b)) * PAIR_MIX;
+    }
+
+    private void ensureCapacity(int required) {
+        if (required <= bodyA.length && required <= axis.length) {
+            return;
+        }
+
+        int capacity = Math.max(Math.max(bodyA.length, axis.length) * 2, required);
+        bodyA = Arrays.copyOf(bodyA, capacity);
+        bodyB = Arrays.copyOf(bodyB, capacity);
+        axis = Arrays.copyOf(axis, capacity);
+        sign = Arrays.copyOf(sign, capacity);
+        memberA = Arrays.copyOf(memberA, capacity);
+        memberB = Arrays.copyOf(memberB, capacity);
+        bias = Arrays.copyOf(bias, capacity);
+        inverseMassA = Arrays.copyOf(inverseMassA, capacity);
+        inverseMassB = Arrays.copyOf(inverseMassB, capacity);
+        impulse = Arrays.copyOf(impulse, capacity);
+        friction = Arrays.copyOf(friction, capacity * 2);
+        solidity = Arrays.copyOf(solidity, capacity);
+    }
+}
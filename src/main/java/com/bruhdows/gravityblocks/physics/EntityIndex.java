@@ -0,0 +1,123 @@
+package com.bruhdows.gravityblocks.physics;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+public class EntityIndex {
+
+    private final LongObjectMap<IntList> columns = new LongObjectMap<>();
+    private double[] bounds = new double[6 * 16];
+    private double[] velocity = new double[3 * 16];
+    private double[] push = new double[3 * 16];
+    private double[] mass = new double[16];
+    private int[] stamps = new int[16];
+    private int stamp;
+    private int size;
+
+    public int add(double minX, double minY, double minZ, double maxX, double maxY, double maxZ,
+                   double velocityX, double velocityY, double velocityZ, double mass) {
+        int slot = size++;
+        if (slot == this.mass.length) {
+            int capacity = slot * 2;
+            bounds = Arrays.copyOf(bounds, capacity * 6);
+            velocity = Arrays.copyOf(velocity, capacity * 3);
+            push = Arrays.copyOf(push, capacity * 3);
+            this.mass = Arrays.copyOf(this.mass, capacity);
+            stamps = Arrays.copyOf(stamps, capacity);
+        }
+
+        int offset = slot * 6;
+        bounds[offset] = minX;
+        bounds[offset + 1] = minY;
+        bounds[offset + 2] = minZ;
+        bounds[offset + 3] = maxX;
+        bounds[offset + 4] = maxY;
+        bounds[offset + 5] = maxZ;
+        velocity[slot * 3] = velocityX;
+        velocity[slot * 3 + 1] = velocityY;
+        velocity[slot * 3 + 2] = velocityZ;
+        this.mass[slot] = mass;
+
+        for (int chunkX = (int) Math.floor(minX) >> 4; chunkX <= (int) Math.floor(maxX) >> 4; chunkX++) {
+            for (int chunkZ = (int) Math.floor(minZ) >> 4; chunkZ <= (int) Math.floor(maxZ) >> 4; chunkZ++) {
+                long key = CellKey.pack(chunkX, 0, chunkZ);
+                IntList slots = columns.get(key);
+                if (slots == null) {
+                    slots = new IntList(4);
+                    columns.put(key, slots);
+                }
+                slots.add(slot);
+            }
+        }
+        return slot;
+    }
+
+    public void query(double minX, double minY, double minZ, double maxX, double maxY, double maxZ, IntConsumer consumer) {
+        if (size == 0) {
+            return;
+        }
+
+        stamp++;
+        for (int chunkX = (int) Math.floor(minX) >> 4; chunkX <= (int) Math.floor(maxX) >> 4; chunkX++) {
+            for (int chunkZ = (int) Math.floor(minZ) >> 4; chunkZ <= (int) Math.floor(maxZ) >> 4; chunkZ++) {
+                IntList slots = columns.get(CellKey.pack(chunkX, 0, chunkZ));
+                if (slots == null) {
+                    continue;
+                }
+
+                for (int i = 0; i < slots.size(); i++) {
+                    int slot = slots.get(i);
+                    if (stamps[slot] == stamp) {
+                        continue;
+                    }
+                    stamps[slot] = stamp;
+
+                    int offset = slot * 6;
+                    if (bounds[offset] < maxX && bounds[offset + 3] > minX
+                            && bounds[offset + 1] < maxY && bounds[offset + 4] > minY
+                            && bounds[offset + 2] < maxZ && bounds[offset + 5] > minZ) {
+                        consumer.accept(slot);
+                    }
+                }
+            }
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public double getPushX(int slot) {
+        return push[slot * 3];
+    }
+
+    public double getPushY(int slot) {
+        return push[slot * 3 + 1];
+    }
+
+    public double getPushZ(int slot) {
+        return push[slot * 3 + 2];
+    }
+
+    public boolean isPushed(int slot) {
+        int offset = slot * 3;
+        return push[offset] != 0 || push[offset + 1] != 0 || push[offset + 2] != 0;
+    }
+
+    double getMass(int slot) {
+        return mass[slot];
+    }
+
+    double getCenter(int slot, int axis) {
+        return (bounds[slot * 6 + axis] + bounds[slot * 6 + 3 + axis]) * 0.5;
+    }
+
+    double getVelocity(int slot, int axis) {
+        return velocity[slot * 3 + axis];
+    }
+
+    void addPush(int slot, int axis, double amount) {
+        push[slot * 3 + axis] += amount;
+        velocity[slot * 3 + axis] += amount;
+    }
+}
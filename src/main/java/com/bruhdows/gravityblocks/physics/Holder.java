@@ -0,0 +1,14 @@
+package com.bruhdows.gravityblocks.physics;
+
+@FunctionalInterface
+public interface Holder {
+
+    int EYE_X = 0;
+    int EYE_Y = 1;
+    int EYE_Z = 2;
+    int DIRECTION_X = 3;
+    int DIRECTION_Y = 4;
+    int DIRECTION_Z = 5;
+
+    boolean sampleEye(double[] eye);
+}
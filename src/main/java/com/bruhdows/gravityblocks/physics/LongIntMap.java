@@ -0,0 +1,87 @@
+package com.bruhdows.gravityblocks.physics;
+
+import java.util.Arrays;
+
+final class LongIntMap {
+
+    private static final long MIX = 0x9E3779B97F4A7C15L;
+
+    private long[] keys;
+    private int[] values;
+    private boolean[] used;
+    private int shift;
+    private int mask;
+    private int size;
+
+    LongIntMap(int capacity) {
+        int slots = Integer.highestOneBit(Math.max(4, capacity * 2 - 1)) << 1;
+        allocate(slots);
+    }
+
+    int get(long key, int missing) {
+        for (int slot = slotOf(key); used[slot]; slot = (slot + 1) & mask) {
+            if (keys[slot] == key) {
+                return values[slot];
+            }
+        }
+        return missing;
+    }
+
+    void put(long key, int value) {
+        int slot = slotOf(key);
+        for (; used[slot]; slot = (slot + 1) & mask) {
+            if (keys[slot] == key) {
+                values[slot] = value;
+                return;
+            }
+        }
+
+        keys[slot] = key;
+        values[slot] = value;
+        used[slot] = true;
+        if (++size * 4 > used.length * 3) {
+            grow();
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    void clear() {
+        if (size > 0) {
+            Arrays.fill(used, false);
+            size = 0;
+        }
+    }
+
+    private void grow() {
+        long[] oldKeys = keys;
+        int[] oldValues = values;
+        boolean[] oldUsed = used;
+        allocate(oldUsed.length * 2);
+        for (int slot = 0; slot < oldUsed.length; slot++) {
+            if (oldUsed[slot]) {
+                int target = slotOf(oldKeys[slot]);
+                while (used[target]) {
+                    target = (target + 1) & mask;
+                }
+                keys[target] = oldKeys[slot];
+                values[target] = oldValues[slot];
+                used[target] = true;
+            }
+        }
+    }
+
+    private void allocate(int slots) {
+        keys = new long[slots];
+        values = new int[slots];
+        used = new boolean[slots];
+        mask = slots - 1;
+        shift = 64 - Integer.numberOfTrailingZeros(slots);
+    }
+
+    private int slotOf(long key) {
+        return (int) ((key * MIX) >>> shift);
+    }
+}
@@ -0,0 +1,783 @@
+package com.bruhdows.gravityblocks.physics;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+
+public class PhysicsEngine {
+
+    public static final double GRAVITY = 0.05;
+    public static final double DRAG = 0.985;
+    public static final double GROUND_FRICTION = 0.88;
+    public static final double BOUNCE_DAMPING = 0.65;
+    public static final double MAX_VELOCITY = 4.0;
+    public static final double MIN_BOUNCE_VELOCITY = 0.08;
+
+    public static final double HOLD_SPRING_STRENGTH = 0.25;
+    public static final double HOLD_DAMPING = 0.75;
+    public static final double MAX_HOLD_VELOCITY = 2.0;
+
+    private static final double BROADPHASE_CELL_SIZE = 2.0;
+
+    private static final double SLEEP_VELOCITY = 0.06;
+    private static final int SLEEP_TICKS = 20;
+    private static final double WAKE_VELOCITY = 0.1;
+
+    private static final double MAX_SUBSTEP_DISTANCE = 0.5;
+    private static final int MAX_SUBSTEPS = 8;
+    private static final int DIRECT_MEMBER_PAIRS = 256;
+
+    private final ForkJoinPool pool;
+    private final List<SweptAabb> allSweeps = new ArrayList<>();
+    private final ThreadLocal<SweptAabb> sweeps = ThreadLocal.withInitial(this::createSweep);
+    private final Map<UUID, SpatialHash> broadphase = new HashMap<>();
+    private UUID[] broadphaseWorlds = new UUID[64];
+
+    private final ContactSolver contacts = new ContactSolver();
+    private final SpatialHash.PairConsumer pairHandler = this::handlePair;
+    private final IntConsumer wakeHandler = this::wakeBody;
+    private final IntConsumer entityHandler = this::handleEntity;
+    private final IntConsumer memberHandler = this::testMemberPair;
+    private final SpatialHash memberGrid = new SpatialHash(1.0);
+    private final IntList memberCandidatesA = new IntList();
+    private final IntList memberCandidatesB = new IntList();
+    private BodyStore stepStore;
+    private StepStats stepStats;
+    private SolidityView pairSolidity;
+    private SweptAabb pairSweep;
+    private EntityIndex stepEntities;
+    private int entityBody;
+    private final int[] singleA = new int[1];
+    private final int[] singleB = new int[1];
+    private int[] groundContacts = new int[64];
+    private int stepCount;
+    private int contactA;
+    private int contactB;
+    private int contactMemberA;
+    private double contactDistance;
+    private final double[] contactMargin = new double[3];
+    private final double[] entityCenter = new double[3];
+
+    public PhysicsEngine(int parallelism) {
+        this(new ForkJoinPool(Math.max(1, parallelism)));
+    }
+
+    public PhysicsEngine(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    public CompletableFuture<PhysicsSnapshot> submit(PhysicsSnapshot snapshot) {
+        return CompletableFuture.supplyAsync(() -> {
+            long start = System.nanoTime();
+            step(snapshot);
+            snapshot.setStepNanos(System.nanoTime() - start);
+            return snapshot;
+        }, pool);
+    }
+
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+
+    public void step(PhysicsSnapshot snapshot) {
+        BodyStore store = snapshot.getStore();
+        StepStats stats = snapshot.getStats();
+        stepStore = store;
+        stepStats = stats;
+
+        IntList removedIds = snapshot.getRemovedIds();
+        for (int i = 0; i < removedIds.size(); i++) {
+            int id = removedIds.get(i);
+            SpatialHash grid = gridOf(id);
+            if (grid != null) {
+                grid.queryNear(id, wakeHandler);
+            }
+            removeFromBroadphase(id);
+        }
+
+        int count = store.size();
+        long phaseStart = System.nanoTime();
+        IntStream.range(0, count).parallel().forEach(index -> {
+            int id = store.idAt(index);
+            if (isSimulated(store, id) && store.stepTicks[id] > 0) {
+                applyForces(store, id);
+            }
+        });
+        stats.integrationNanos = System.nanoTime() - phaseStart;
+
+        phaseStart = System.nanoTime();
+        for (int index = 0; index < count; index++) {
+            int id = store.idAt(index);
+            if (store.getRoot(id) != id) {
+                removeFromBroadphase(id);
+            } else if (!store.hasFlag(id, BodyStore.INACTIVE)) {
+                updateBroadphase(store, id);
+            }
+        }
+        stats.broadphaseNanos = System.nanoTime() - phaseStart;
+
+        phaseStart = System.nanoTime();
+        pairSweep = sweeps.get();
+        contacts.begin();
+        stepCount++;
+        for (int index = 0; index < count; index++) {
+            int id = store.idAt(index);
+            if (!isSimulated(store, id)) {
+                continue;
+            }
+
+            UUID world = store.getWorld(id);
+            pairSolidity = snapshot.getSolidity(world);
+            PairCollisionEvent event = PairCollisionEvent.TYPE.isEnabled() ? new PairCollisionEvent() : null;
+            if (event != null) {
+                event.begin();
+            }
+            int tested = stats.pairsTested;
+            int colliding = stats.pairsColliding;
+            broadphase.get(world).forEachCandidate(id, pairHandler);
+            if (event != null && event.shouldCommit()) {
+                double[] velocity = store.velocity;
+                event.blockId = id;
+                event.world = world.toString();
+                event.chunkX = (int) Math.floor(store.position[id * 3]) >> 4;
+                event.chunkZ = (int) Math.floor(store.position[id * 3 + 2]) >> 4;
+                event.velocityX = velocity[id * 3];
+                event.velocityY = velocity[id * 3 + 1];
+                event.velocityZ = velocity[id * 3 + 2];
+                event.members = memberCount(store, id);
+                event.pairsTested = stats.pairsTested - tested;
+                event.pairsColliding = stats.pairsColliding - colliding;
+                event.commit();
+            }
+        }
+
+        stats.pairNanos = System.nanoTime() - phaseStart;
+
+        phaseStart = System.nanoTime();
+        contacts.solve(store);
+        stats.solverNanos = System.nanoTime() - phaseStart;
+        stats.contacts = contacts.size();
+
+        phaseStart = System.nanoTime();
+        IntStream.range(0, count).parallel().forEach(index -> {
+            int id = store.idAt(index);
+            if (isSimulated(store, id) && store.stepTicks[id] > 0 && !store.hasFlag(id, BodyStore.HELD)) {
+                integratePosition(store, id, snapshot.getSolidity(store.getWorld(id)));
+            }
+        });
+        stats.integrationNanos += System.nanoTime() - phaseStart;
+
+        phaseStart = System.nanoTime();
+        contacts.correctPositions(store, pairSweep);
+        stats.solverNanos += System.nanoTime() - phaseStart;
+        stats.worldCollisionNanos = drainSweepNanos();
+
+        phaseStart = System.nanoTime();
+        for (int index = 0; index < count; index++) {
+            int id = store.idAt(index);
+            if (isSimulated(store, id) && store.stepTicks[id] > 0 && !store.hasFlag(id, BodyStore.HELD)) {
+                EntityIndex entities = snapshot.getEntities(store.getWorld(id));
+                if (entities != null) {
+                    collideEntities(store, id, entities);
+                }
+            }
+        }
+        stats.entityNanos = System.nanoTime() - phaseStart;
+
+        for (int index = 0; index < count; index++) {
+            int id = store.idAt(index);
+            if (isSimulated(store, id)) {
+                updateSleep(store, id);
+                if (store.isCompound(id)) {
+                    store.syncCompound(id);
+                }
+            }
+        }
+
+        for (int index = 0; index < count; index++) {
+            countBody(store, stats, store.idAt(index));
+        }
+
+        for (Map.Entry<UUID, Set<Long>> entry : snapshot.getWakeRequests().entrySet()) {
+            SpatialHash grid = broadphase.get(entry.getKey());
+            if (grid == null) {
+                continue;
+            }
+
+            for (long key : entry.getValue()) {
+                int x = CellKey.unpackX(key);
+                int y = CellKey.unpackY(key);
+                int z = CellKey.unpackZ(key);
+                grid.query(x - 1, y - 1, z - 1, x + 2, y + 2, z + 2, wakeHandler);
+            }
+        }
+
+        stepStore = null;
+        stepStats = null;
+        pairSolidity = null;
+        stepEntities = null;
+    }
+
+    public static double collisionReach(BodyStore store, int id) {
+        double[] velocity = store.velocity;
+        int offset = id * 3;
+        double speed = Math.sqrt(velocity[offset] * velocity[offset]
+                + velocity[offset + 1] * velocity[offset + 1]
+                + velocity[offset + 2] * velocity[offset + 2]);
+        return Math.min(MAX_VELOCITY, speed + GRAVITY) * Math.max(1, store.stepTicks[id]);
+    }
+
+    static void clampVelocity(BodyStore store, int id, double max) {
+        double[] velocity = store.velocity;
+        int offset = id * 3;
+        double lengthSquared = velocity[offset] * velocity[offset]
+                + velocity[offset + 1] * velocity[offset + 1]
+                + velocity[offset + 2] * velocity[offset + 2];
+
+        if (lengthSquared > max * max) {
+            double scale = max / Math.sqrt(lengthSquared);
+            velocity[offset] *= scale;
+            velocity[offset + 1] *= scale;
+            velocity[offset + 2] *= scale;
+        }
+    }
+
+    private static boolean isSimulated(BodyStore store, int id) {
+        return !store.hasFlag(id, BodyStore.INACTIVE) && store.getRoot(id) == id;
+    }
+
+    static int sweepBody(BodyStore store, SweptAabb sweep, SolidityView solidity, int id,
+                                 double deltaX, double deltaY, double deltaZ) {
+        Compound compound = store.compounds[id];
+        if (compound != null) {
+            return sweep.sweep(solidity, store.position, store.size, compound, deltaX, deltaY, deltaZ);
+        }
+        return sweep.sweep(solidity, store.position, id * 3, store.size[id], deltaX, deltaY, deltaZ);
+    }
+
+    private void applyForces(BodyStore store, int id) {
+        if (store.hasFlag(id, BodyStore.HELD)) {
+            integrateHeld(store, id);
+            store.ticksSinceGrabbed[id]++;
+            if (store.isCompound(id)) {
+                store.syncCompound(id);
+            }
+            return;
+        }
+
+        double[] velocity = store.velocity;
+        int offset = id * 3;
+        int ticks = store.stepTicks[id];
+
+        double drag = ticks == 1 ? DRAG : Math.pow(DRAG, ticks);
+        velocity[offset + 1] -= GRAVITY * ticks;
+        velocity[offset] *= drag;
+        velocity[offset + 1] *= drag;
+        velocity[offset + 2] *= drag;
+
+        if (store.hasFlag(id, BodyStore.ON_GROUND)) {
+            double friction = ticks == 1 ? GROUND_FRICTION : Math.pow(GROUND_FRICTION, ticks);
+            velocity[offset] *= friction;
+            velocity[offset + 2] *= friction;
+        }
+
+        clampVelocity(store, id, MAX_VELOCITY);
+    }
+
+    private void integratePosition(BodyStore store, int id, SolidityView solidity) {
+        double[] velocity = store.velocity;
+        int offset = id * 3;
+        int ticks = store.stepTicks[id];
+        double settle = -GRAVITY * ticks;
+        if (store.hasFlag(id, BodyStore.ON_GROUND) && velocity[offset + 1] <= 0 && velocity[offset + 1] > settle) {
+            velocity[offset + 1] = settle;
+        }
+
+        double distance = Math.sqrt(velocity[offset] * velocity[offset]
+                + velocity[offset + 1] * velocity[offset + 1]
+                + velocity[offset + 2] * velocity[offset + 2]) * ticks;
+        int substeps = Math.max(1, Math.min(MAX_SUBSTEPS, (int) Math.ceil(distance / MAX_SUBSTEP_DISTANCE)));
+        double dt = (double) ticks / substeps;
+
+        SweptAabb sweep = sweeps.get();
+        WorldCollisionEvent event = WorldCollisionEvent.TYPE.isEnabled() ? new WorldCollisionEvent() : null;
+        if (event != null) {
+            event.begin();
+        }
+        long probed = sweep.getVoxelsProbed();
+        double velocityX = velocity[offset];
+        double velocityY = velocity[offset + 1];
+        double velocityZ = velocity[offset + 2];
+        for (int i = 0; i < substeps; i++) {
+            move(store, id, solidity, sweep, dt);
+        }
+
+        if (event != null && event.shouldCommit()) {
+            event.blockId = id;
+            event.world = store.getWorld(id).toString();
+            event.chunkX = (int) Math.floor(store.position[offset]) >> 4;
+            event.chunkZ = (int) Math.floor(store.position[offset + 2]) >> 4;
+            event.velocityX = velocityX;
+            event.velocityY = velocityY;
+            event.velocityZ = velocityZ;
+            event.members = memberCount(store, id);
+            event.substeps = substeps;
+            event.voxelsProbed = sweep.getVoxelsProbed() - probed;
+            event.commit();
+        }
+    }
+
+    private static int memberCount(BodyStore store, int id) {
+        Compound compound = store.compounds[id];
+        return compound != null ? compound.members.length : 1;
+    }
+
+    private static void move(BodyStore store, int id, SolidityView solidity, SweptAabb sweep, double dt) {
+        double[] velocity = store.velocity;
+        int offset = id * 3;
+        int hits = sweepBody(store, sweep, solidity, id,
+                velocity[offset] * dt, velocity[offset + 1] * dt, velocity[offset + 2] * dt);
+
+        if ((hits & SweptAabb.HIT_X) != 0) {
+            velocity[offset] = -velocity[offset] * BOUNCE_DAMPING;
+        }
+
+        if ((hits & SweptAabb.HIT_Y) != 0) {
+            if (velocity[offset + 1] < 0) {
+                store.setFlag(id, BodyStore.ON_GROUND, true);
+            }
+
+            if (Math.abs(velocity[offset + 1]) < MIN_BOUNCE_VELOCITY) {
+                velocity[offset + 1] = 0;
+            } else {
+                velocity[offset + 1] = -velocity[offset + 1] * BOUNCE_DAMPING;
+            }
+        } else {
+            store.setFlag(id, BodyStore.ON_GROUND, false);
+        }
+
+        if ((hits & SweptAabb.HIT_Z) != 0) {
+            velocity[offset + 2] = -velocity[offset + 2] * BOUNCE_DAMPING;
+        }
+    }
+
+    private void collideEntities(BodyStore store, int id, EntityIndex entities) {
+        double[] position = store.position;
+        int offset = id * 3;
+        Compound compound = store.compounds[id];
+        double minX = position[offset];
+        double minY = position[offset + 1];
+        double minZ = position[offset + 2];
+        double maxX = minX + store.size[id];
+        double maxY = minY + store.size[id];
+        double maxZ = minZ + store.size[id];
+        if (compound != null) {
+            maxX = minX + compound.bounds[3];
+            maxY = minY + compound.bounds[4];
+            maxZ = minZ + compound.bounds[5];
+            minX += compound.bounds[0];
+            minY += compound.bounds[1];
+            minZ += compound.bounds[2];
+        }
+
+        stepEntities = entities;
+        entityBody = id;
+        entityCenter[0] = (minX + maxX) * 0.5;
+        entityCenter[1] = (minY + maxY) * 0.5;
+        entityCenter[2] = (minZ + maxZ) * 0.5;
+        entities.query(minX, minY, minZ, maxX, maxY, maxZ, entityHandler);
+    }
+
+    private void handleEntity(int slot) {
+        EntityIndex entities = stepEntities;
+        double[] velocity = stepStore.velocity;
+        int offset = entityBody * 3;
+
+        double approach = 0;
+        for (int axis = 0; axis < 3; axis++) {
+            approach += (velocity[offset + axis] - entities.getVelocity(slot, axis))
+                    * (entities.getCenter(slot, axis) - entityCenter[axis]);
+        }
+        if (approach <= 0) {
+            return;
+        }
+
+        double blockMass = stepStore.getMass(entityBody);
+        double entityMass = entities.getMass(slot);
+        double total = blockMass + entityMass;
+        for (int axis = 0; axis < 3; axis++) {
+            double entityVelocity = entities.getVelocity(slot, axis);
+            double shared = (blockMass * velocity[offset + axis] + entityMass * entityVelocity) / total;
+            entities.addPush(slot, axis, shared - entityVelocity);
+            velocity[offset + axis] = shared;
+        }
+        stepStats.entityContacts++;
+    }
+
+    private void integrateHeld(BodyStore store, int id) {
+        double[] position = store.position;
+        double[] velocity = store.velocity;
+        double[] holdTarget = store.holdTarget;
+        double[] lastHeld = store.lastHeld;
+        int offset = id * 3;
+
+        for (int axis = 0; axis < 3; axis++) {
+            velocity[offset + axis] += (holdTarget[offset + axis] - position[offset + axis]) * HOLD_SPRING_STRENGTH;
+            velocity[offset + axis] *= HOLD_DAMPING;
+        }
+
+        clampVelocity(store, id, MAX_HOLD_VELOCITY);
+
+        for (int axis = 0; axis < 3; axis++) {
+            position[offset + axis] += velocity[offset + axis];
+        }
+
+        if (store.hasFlag(id, BodyStore.HAS_LAST_HELD)) {
+            double[] history = store.history;
+            int base = id * BodyStore.VELOCITY_HISTORY_SIZE * 3;
+            int index = base + store.historyIndex[id] * 3;
+            int last = base + ((store.historyIndex[id] - 1 + BodyStore.VELOCITY_HISTORY_SIZE) % BodyStore.VELOCITY_HISTORY_SIZE) * 3;
+            boolean smooth = store.ticksSinceGrabbed[id] > 0;
+
+            for (int axis = 0; axis < 3; axis++) {
+                double current = position[offset + axis] - lastHeld[offset + axis];
+                history[index + axis] = smooth ? history[last + axis] * 0.3 + current * 0.7 : current;
+            }
+            store.historyIndex[id] = (store.historyIndex[id] + 1) % BodyStore.VELOCITY_HISTORY_SIZE;
+        }
+
+        store.setFlag(id, BodyStore.HAS_LAST_HELD, true);
+        System.arraycopy(position, offset, lastHeld, offset, 3);
+    }
+
+    private static boolean overlaps(BodyStore store, int a, int b, double[] margin) {
+        double[] position = store.position;
+        double sizeA = store.size[a];
+        double sizeB = store.size[b];
+        int offsetA = a * 3;
+        int offsetB = b * 3;
+
+        for (int axis = 0; axis < 3; axis++) {
+            if (position[offsetA + axis] >= position[offsetB + axis] + sizeB + margin[axis]
+                    || position[offsetA + axis] + sizeA + margin[axis] <= position[offsetB + axis]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean overlapsShape(BodyStore store, int member, int root, double[] margin) {
+        Compound compound = store.compounds[root];
+        double[] position = store.position;
+        int offsetMember = member * 3;
+        int offsetRoot = root * 3;
+        double size = store.size[member];
+
+        for (int axis = 0; axis < 3; axis++) {
+            double min = compound != null ? compound.bounds[axis] : 0;
+            double max = compound != null ? compound.bounds[axis + 3] : store.size[root];
+            if (position[offsetMember + axis] >= position[offsetRoot + axis] + max + margin[axis]
+                    || position[offsetMember + axis] + size + margin[axis] <= position[offsetRoot + axis] + min) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean findContact(BodyStore store, int a, int b) {
+        Compound compoundA = store.compounds[a];
+        Compound compoundB = store.compounds[b];
+        if (compoundA == null && compoundB == null) {
+            contactA = a;
+            contactB = b;
+            return overlaps(store, a, b, contactMargin);
+        }
+
+        if (compoundA != null && !overlapsShape(store, b, a, contactMargin)
+                || compoundB != null && !overlapsShape(store, a, b, contactMargin)) {
+            return false;
+        }
+
+        singleA[0] = a;
+        singleB[0] = b;
+        if (!collectCandidates(store, compoundA != null ? compoundA.surface : singleA, b, memberCandidatesA)
+                || !collectCandidates(store, compoundB != null ? compoundB.surface : singleB, a, memberCandidatesB)) {
+            return false;
+        }
+
+        contactDistance = Double.POSITIVE_INFINITY;
+        if (memberCandidatesA.size() * memberCandidatesB.size() <= DIRECT_MEMBER_PAIRS) {
+            for (int i = 0; i < memberCandidatesA.size(); i++) {
+                contactMemberA = memberCandidatesA.get(i);
+                for (int j = 0; j < memberCandidatesB.size(); j++) {
+                    testMemberPair(memberCandidatesB.get(j));
+                }
+            }
+            return contactDistance != Double.POSITIVE_INFINITY;
+        }
+
+        double[] position = store.position;
+        for (int i = 0; i < memberCandidatesB.size(); i++) {
+            int member = memberCandidatesB.get(i);
+            int offset = member * 3;
+            double size = store.size[member];
+            memberGrid.update(member,
+                    position[offset] - contactMargin[0], position[offset + 1] - contactMargin[1], position[offset + 2] - contactMargin[2],
+                    position[offset] + size + contactMargin[0], position[offset + 1] + size + contactMargin[1],
+                    position[offset + 2] + size + contactMargin[2]);
+        }
+
+        for (int i = 0; i < memberCandidatesA.size(); i++) {
+            int member = memberCandidatesA.get(i);
+            int offset = member * 3;
+            double size = store.size[member];
+            contactMemberA = member;
+            memberGrid.query(position[offset], position[offset + 1], position[offset + 2],
+                    position[offset] + size, position[offset + 1] + size, position[offset + 2] + size, memberHandler);
+        }
+
+        for (int i = 0; i < memberCandidatesB.size(); i++) {
+            memberGrid.remove(memberCandidatesB.get(i));
+        }
+        return contactDistance != Double.POSITIVE_INFINITY;
+    }
+
+    private boolean collectCandidates(BodyStore store, int[] members, int other, IntList candidates) {
+        candidates.clear();
+        for (int member : members) {
+            if (overlapsShape(store, member, other, contactMargin)) {
+                candidates.add(member);
+            }
+        }
+        return !candidates.isEmpty();
+    }
+
+    private void testMemberPair(int memberB) {
+        int memberA = contactMemberA;
+        if (!overlaps(stepStore, memberA, memberB, contactMargin)) {
+            return;
+        }
+
+        double[] position = stepStore.position;
+        double halfSizeDifference = (stepStore.size[memberA] - stepStore.size[memberB]) / 2;
+        double distance = 0;
+        for (int axis = 0; axis < 3; axis++) {
+            double delta = position[memberA * 3 + axis] - position[memberB * 3 + axis] + halfSizeDifference;
+            distance += delta * delta;
+        }
+
+        if (distance < contactDistance) {
+            contactDistance = distance;
+            contactA = memberA;
+            contactB = memberB;
+        }
+    }
+
+    private void handlePair(int a, int b) {
+        boolean otherInactive = stepStore.hasFlag(b, BodyStore.INACTIVE);
+        if (!otherInactive && b < a) {
+            return;
+        }
+
+        stepStats.pairsTested++;
+        double[] velocity = stepStore.velocity;
+        int ticks = Math.max(stepStore.stepTicks[a], stepStore.stepTicks[b]);
+        for (int axis = 0; axis < 3; axis++) {
+            contactMargin[axis] = Math.abs(velocity[a * 3 + axis] - velocity[b * 3 + axis]) * ticks;
+        }
+        if (!findContact(stepStore, a, b)) {
+            return;
+        }
+
+        stepStats.pairsColliding++;
+
+        addContact(stepStore, a, b, otherInactive);
+    }
+
+    private static void countBody(BodyStore store, StepStats stats, int id) {
+        if (store.hasFlag(id, BodyStore.FROZEN)) {
+            stats.frozenBodies++;
+        } else if (store.hasFlag(id, BodyStore.SLEEPING)) {
+            stats.sleepingBodies++;
+        } else {
+            stats.awakeBodies++;
+            if (store.hasFlag(id, BodyStore.HELD)) {
+                stats.heldBodies++;
+            }
+        }
+    }
+
+    private SweptAabb createSweep() {
+        SweptAabb sweep = new SweptAabb();
+        synchronized (allSweeps) {
+            allSweeps.add(sweep);
+        }
+        return sweep;
+    }
+
+    private long drainSweepNanos() {
+        long total = 0;
+        synchronized (allSweeps) {
+            for (SweptAabb sweep : allSweeps) {
+                total += sweep.drainElapsedNanos();
+            }
+        }
+        return total;
+    }
+
+    private void wakeBody(int id) {
+        if (stepStore.isActive(id) && !stepStore.hasFlag(id, BodyStore.FROZEN)) {
+            stepStore.wake(id);
+        }
+    }
+
+    private void updateSleep(BodyStore store, int id) {
+        if (store.hasFlag(id, BodyStore.INACTIVE)) {
+            return;
+        }
+
+        if (store.hasFlag(id, BodyStore.HELD)) {
+            store.restTicks[id] = 0;
+            return;
+        }
+
+        double[] velocity = store.velocity;
+        int offset = id * 3;
+        double speedSquared = velocity[offset] * velocity[offset]
+                + velocity[offset + 1] * velocity[offset + 1]
+                + velocity[offset + 2] * velocity[offset + 2];
+
+        if (speedSquared >= SLEEP_VELOCITY * SLEEP_VELOCITY) {
+            store.restTicks[id] = 0;
+            return;
+        }
+
+        if (store.stepTicks[id] == 0) {
+            return;
+        }
+
+        if ((store.restTicks[id] += store.stepTicks[id]) >= SLEEP_TICKS) {
+            store.setFlag(id, BodyStore.SLEEPING, true);
+            velocity[offset] = 0;
+            velocity[offset + 1] = 0;
+            velocity[offset + 2] = 0;
+        }
+    }
+
+    private void addContact(BodyStore store, int a, int b, boolean otherInactive) {
+        double[] position = store.position;
+        double[] velocity = store.velocity;
+        int offsetA = contactA * 3;
+        int offsetB = contactB * 3;
+        double sizeA = store.size[contactA];
+        double sizeB = store.size[contactB];
+
+        int normalAxis = 0;
+        double penetration = Double.POSITIVE_INFINITY;
+        for (int axis = 0; axis < 3; axis++) {
+            double overlap = Math.min(position[offsetA + axis] + sizeA, position[offsetB + axis] + sizeB)
+                    - Math.max(position[offsetA + axis], position[offsetB + axis]);
+            if (overlap < penetration) {
+                penetration = overlap;
+                normalAxis = axis;
+            }
+        }
+
+        double normalSign = position[offsetA + normalAxis] + sizeA / 2 >= position[offsetB + normalAxis] + sizeB / 2 ? 1 : -1;
+        double approach = (velocity[a * 3 + normalAxis] - velocity[b * 3 + normalAxis]) * normalSign;
+
+        boolean otherStatic = otherInactive
+                && (store.hasFlag(b, BodyStore.FROZEN) || -approach < WAKE_VELOCITY);
+        if (otherInactive && !otherStatic) {
+            store.wake(b);
+        }
+
+        contacts.add(a, b, contactA, contactB, normalAxis, normalSign, penetration, approach,
+                inverseMass(store, a), otherStatic ? 0 : inverseMass(store, b),
+                Math.max(store.stepTicks[a], store.stepTicks[b]), pairSolidity);
+
+        addGroundContact(store, a);
+        if (!otherStatic) {
+            addGroundContact(store, b);
+        }
+    }
+
+    private void addGroundContact(BodyStore store, int id) {
+        if (!store.hasFlag(id, BodyStore.ON_GROUND)) {
+            return;
+        }
+
+        if (id >= groundContacts.length) {
+            groundContacts = Arrays.copyOf(groundContacts, Math.max(groundContacts.length * 2, id + 1));
+        }
+        if (groundContacts[id] == stepCount) {
+            return;
+        }
+
+        groundContacts[id] = stepCount;
+        contacts.add(id, ContactSolver.WORLD, id, ContactSolver.WORLD, 1, 1, 0, store.velocity[id * 3 + 1],
+                inverseMass(store, id), 0, store.stepTicks[id], pairSolidity);
+    }
+
+    private static double inverseMass(BodyStore store, int id) {
+        Compound compound = store.compounds[id];
+        return compound != null ? compound.inverseMass : store.inverseMass[id];
+    }
+
+    private SpatialHash gridOf(int id) {
+        if (id >= broadphaseWorlds.length || broadphaseWorlds[id] == null) {
+            return null;
+        }
+        return broadphase.get(broadphaseWorlds[id]);
+    }
+
+    private void updateBroadphase(BodyStore store, int id) {
+        if (id >= broadphaseWorlds.length) {
+            broadphaseWorlds = Arrays.copyOf(broadphaseWorlds, Math.max(broadphaseWorlds.length * 2, id + 1));
+        }
+
+        UUID world = store.getWorld(id);
+        if (broadphaseWorlds[id] != null && !broadphaseWorlds[id].equals(world)) {
+            broadphase.get(broadphaseWorlds[id]).remove(id);
+        }
+        broadphaseWorlds[id] = world;
+
+        double[] velocity = store.velocity;
+        int offset = id * 3;
+        int ticks = store.stepTicks[id];
+        double moveX = velocity[offset] * ticks;
+        double moveY = velocity[offset + 1] * ticks;
+        double moveZ = velocity[offset + 2] * ticks;
+        double x = store.getX(id);
+        double y = store.getY(id);
+        double z = store.getZ(id);
+        SpatialHash grid = broadphase.computeIfAbsent(world, key -> new SpatialHash(BROADPHASE_CELL_SIZE));
+        Compound compound = store.compounds[id];
+        double[] bounds = compound != null ? compound.bounds : null;
+        double size = store.size[id];
+        grid.update(id,
+                x + (bounds != null ? bounds[0] : 0) + Math.min(0, moveX),
+                y + (bounds != null ? bounds[1] : 0) + Math.min(0, moveY),
+                z + (bounds != null ? bounds[2] : 0) + Math.min(0, moveZ),
+                x + (bounds != null ? bounds[3] : size) + Math.max(0, moveX),
+                y + (bounds != null ? bounds[4] : size) + Math.max(0, moveY),
+                z + (bounds != null ? bounds[5] : size) + Math.max(0, moveZ));
+    }
+
+    private void removeFromBroadphase(int id) {
+        if (id >= broadphaseWorlds.length || broadphaseWorlds[id] == null) {
+            return;
+        }
+
+        broadphase.get(broadphaseWorlds[id]).remove(id);
+        broadphaseWorlds[id] = null;
+    }
+}
@@ -0,0 +1,46 @@
+package com.bruhdows.gravityblocks.physics;
+
+import lombok.Getter;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+@Getter
+public class PhysicsSnapshot {
+
+    private final BodyStore store;
+    private final Map<UUID, ? extends SolidityView> solidity;
+    private final IntList removedIds;
+    private final Map<UUID, Set<Long>> wakeRequests;
+    private final Map<UUID, EntityIndex> entities;
+    private final StepStats stats = new StepStats();
+    private volatile long stepNanos;
+
+    public PhysicsSnapshot(BodyStore store, Map<UUID, ? extends SolidityView> solidity, IntList removedIds,
+                           Map<UUID, Set<Long>> wakeRequests) {
+        this(store, solidity, removedIds, wakeRequests, Map.of());
+    }
+
+    public PhysicsSnapshot(BodyStore store, Map<UUID, ? extends SolidityView> solidity, IntList removedIds,
+                           Map<UUID, Set<Long>> wakeRequests, Map<UUID, EntityIndex> entities) {
+        this.store = store;
+        this.solidity = solidity;
+        this.removedIds = removedIds;
+        this.wakeRequests = wakeRequests;
+        this.entities = entities;
+    }
+
+    void setStepNanos(long stepNanos) {
+        this.stepNanos = stepNanos;
+    }
+
+    public SolidityView getSolidity(UUID world) {
+        SolidityView view = solidity.get(world);
+        return view != null ? view : SolidityView.EMPTY;
+    }
+
+    public EntityIndex getEntities(UUID world) {
+        return entities.get(world);
+    }
+}
@@ -0,0 +1,111 @@
+package com.bruhdows.gravityblocks.physics;
+
+import lombok.Getter;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+public class Simulation {
+
+    public static final double TICK_SECONDS = 0.05;
+
+    @Getter
+    private final BodyStore store = new BodyStore();
+    private final PhysicsEngine engine;
+    private final Map<UUID, SolidityView> solidity = new HashMap<>();
+    private final double[] eye = new double[6];
+    private Map<UUID, Set<Long>> wakeRequests = new HashMap<>();
+    private Holder[] holders = new Holder[64];
+    private double accumulator;
+
+    @Getter
+    private long tick;
+
+    public Simulation(PhysicsEngine engine) {
+        this.engine = engine;
+    }
+
+    public void setSolidity(UUID world, SolidityView view) {
+        solidity.put(world, view);
+    }
+
+    public int spawn(UUID world, double x, double y, double z, double size) {
+        return spawn(world, x, y, z, size, 1.0);
+    }
+
+    public int spawn(UUID world, double x, double y, double z, double size, double density) {
+        int id = store.allocate(world, x, y, z, size, density);
+        if (id >= holders.length) {
+            holders = Arrays.copyOf(holders, Math.max(holders.length * 2, id + 1));
+        }
+        holders[id] = null;
+        return id;
+    }
+
+    public void remove(int id) {
+        holders[id] = null;
+        store.remove(id);
+    }
+
+    public int join(int... ids) {
+        return store.join(ids);
+    }
+
+    public void grab(int id, Holder holder) {
+        holders[id] = holder;
+        store.grab(id);
+    }
+
+    public void release(int id) {
+        holders[id] = null;
+        store.release(id);
+    }
+
+    public void throwBody(int id, double directionX, double directionY, double directionZ, double power) {
+        holders[id] = null;
+        store.throwBody(id, directionX, directionY, directionZ, power);
+    }
+
+    public void blockChanged(UUID world, int x, int y, int z) {
+        wakeRequests.computeIfAbsent(world, key -> new HashSet<>()).add(CellKey.pack(x, y, z));
+    }
+
+    public int advance(double seconds) {
+        accumulator += seconds;
+
+        int steps = 0;
+        while (accumulator >= TICK_SECONDS) {
+            accumulator -= TICK_SECONDS;
+            step();
+            steps++;
+        }
+        return steps;
+    }
+
+    public void step() {
+        for (int index = 0; index < store.size(); index++) {
+            int id = store.idAt(index);
+            store.setStepTicks(id, 1);
+
+            Holder holder = holders[id];
+            if (holder == null || !store.isHeld(id)) {
+                continue;
+            }
+
+            if (holder.sampleEye(eye)) {
+                store.aim(id, eye);
+            } else {
+                release(id);
+            }
+        }
+
+        PhysicsSnapshot snapshot = new PhysicsSnapshot(store, solidity, store.drainRemovedIds(), wakeRequests);
+        wakeRequests = new HashMap<>();
+        engine.step(snapshot);
+        tick++;
+    }
+}
@@ -0,0 +1,9 @@
+package com.bruhdows.gravityblocks.physics;
+
+@FunctionalInterface
+public interface SolidityView {
+
+    SolidityView EMPTY = (x, y, z) -> false;
+
+    boolean isSolid(int x, int y, int z);
+}
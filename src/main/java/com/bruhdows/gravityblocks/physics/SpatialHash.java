@@ -0,0 +1,283 @@
+package com.bruhdows.gravityblocks.physics;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+public class SpatialHash {
+
+    private final double cellSize;
+    private final LongObjectMap<IntList> cells = new LongObjectMap<>();
+
+    private int[] bounds = new int[6 * 64];
+    private boolean[] present = new boolean[64];
+    private int count;
+
+    public SpatialHash(double cellSize) {
+        this.cellSize = cellSize;
+    }
+
+    public void update(int id, double minX, double minY, double minZ, double maxX, double maxY, double maxZ) {
+        ensureCapacity(id);
+
+        int cMinX = toCell(minX);
+        int cMinY = toCell(minY);
+        int cMinZ = toCell(minZ);
+        int cMaxX = toCell(maxX);
+        int cMaxY = toCell(maxY);
+        int cMaxZ = toCell(maxZ);
+
+        int offset = id * 6;
+        if (present[id]) {
+            if (bounds[offset] == cMinX && bounds[offset + 1] == cMinY && bounds[offset + 2] == cMinZ
+                    && bounds[offset + 3] == cMaxX && bounds[offset + 4] == cMaxY && bounds[offset + 5] == cMaxZ) {
+                return;
+            }
+            unlink(id);
+        } else {
+            present[id] = true;
+            count++;
+        }
+
+        bounds[offset] = cMinX;
+        bounds[offset + 1] = cMinY;
+        bounds[offset + 2] = cMinZ;
+        bounds[offset + 3] = cMaxX;
+        bounds[offset + 4] = cMaxY;
+        bounds[offset + 5] = cMaxZ;
+        link(id);
+    }
+
+    public void remove(int id) {
+        if (id >= present.length || !present[id]) {
+            return;
+        }
+
+        unlink(id);
+        present[id] = false;
+        count--;
+    }
+
+    public boolean contains(int id) {
+        return id < present.length && present[id];
+    }
+
+    public void forEachPair(PairConsumer consumer) {
+        for (int slot = 0; slot < cells.slots(); slot++) {
+            IntList members = cells.valueAt(slot);
+            if (members == null || members.size() < 2) {
+                continue;
+            }
+
+            long key = cells.keyAt(slot);
+            int cellX = CellKey.unpackX(key);
+            int cellY = CellKey.unpackY(key);
+            int cellZ = CellKey.unpackZ(key);
+
+            for (int i = 0; i < members.size(); i++) {
+                int a = members.get(i);
+                for (int j = i + 1; j < members.size(); j++) {
+                    int b = members.get(j);
+                    if (isOwnerCell(a, b, cellX, cellY, cellZ)) {
+                        consumer.accept(a, b);
+                    }
+                }
+            }
+        }
+    }
+
+    public void forEachCandidate(int id, PairConsumer consumer) {
+        if (!contains(id)) {
+            return;
+        }
+
+        int offset = id * 6;
+        for (int x = bounds[offset]; x <= bounds[offset + 3]; x++) {
+            for (int y = bounds[offset + 1]; y <= bounds[offset + 4]; y++) {
+                for (int z = bounds[offset + 2]; z <= bounds[offset + 5]; z++) {
+                    IntList members = cells.get(CellKey.pack(x, y, z));
+                    if (members == null) {
+                        continue;
+                    }
+
+                    for (int i = 0; i < members.size(); i++) {
+                        int other = members.get(i);
+                        if (other != id && isOwnerCell(id, other, x, y, z)) {
+                            consumer.accept(id, other);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    public void query(double minX, double minY, double minZ, double maxX, double maxY, double maxZ, IntConsumer consumer) {
+        int cMaxX = toCell(maxX);
+        int cMaxY = toCell(maxY);
+        int cMaxZ = toCell(maxZ);
+
+        for (int x = toCell(minX); x <= cMaxX; x++) {
+            for (int y = toCell(minY); y <= cMaxY; y++) {
+                for (int z = toCell(minZ); z <= cMaxZ; z++) {
+                    IntList members = cells.get(CellKey.pack(x, y, z));
+                    if (members == null) {
+                        continue;
+                    }
+
+                    for (int i = 0; i < members.size(); i++) {
+                        consumer.accept(members.get(i));
+                    }
+                }
+            }
+        }
+    }
+
+    public void raycast(double originX, double originY, double originZ,
+                        double directionX, double directionY, double directionZ,
+                        double maxDistance, RayVisitor visitor) {
+        int cellX = toCell(originX);
+        int cellY = toCell(originY);
+        int cellZ = toCell(originZ);
+        int stepX = directionX > 0 ? 1 : directionX < 0 ? -1 : 0;
+        int stepY = directionY > 0 ? 1 : directionY < 0 ? -1 : 0;
+        int stepZ = directionZ > 0 ? 1 : directionZ < 0 ? -1 : 0;
+        double nextX = boundaryTime(originX, directionX, cellX, stepX);
+        double nextY = boundaryTime(originY, directionY, cellY, stepY);
+        double nextZ = boundaryTime(originZ, directionZ, cellZ, stepZ);
+        double deltaX = stepX != 0 ? cellSize / Math.abs(directionX) : Double.POSITIVE_INFINITY;
+        double deltaY = stepY != 0 ? cellSize / Math.abs(directionY) : Double.POSITIVE_INFINITY;
+        double deltaZ = stepZ != 0 ? cellSize / Math.abs(directionZ) : Double.POSITIVE_INFINITY;
+
+        double limit = maxDistance;
+        double time = 0;
+        while (time <= limit) {
+            IntList members = cells.get(CellKey.pack(cellX, cellY, cellZ));
+            if (members != null) {
+                for (int i = 0; i < members.size(); i++) {
+                    limit = Math.min(limit, visitor.visit(members.get(i)));
+                }
+            }
+
+            if (nextX <= nextY && nextX <= nextZ) {
+                time = nextX;
+                nextX += deltaX;
+                cellX += stepX;
+            } else if (nextY <= nextZ) {
+                time = nextY;
+                nextY += deltaY;
+                cellY += stepY;
+            } else {
+                time = nextZ;
+                nextZ += deltaZ;
+                cellZ += stepZ;
+            }
+        }
+    }
+
+    public void queryNear(int id, IntConsumer consumer) {
+        if (!contains(id)) {
+            return;
+        }
+
+        int offset = id * 6;
+        for (int x = bounds[offset]; x <= bounds[offset + 3]; x++) {
+            for (int y = bounds[offset + 1]; y <= bounds[offset + 4]; y++) {
+                for (int z = bounds[offset + 2]; z <= bounds[offset + 5]; z++) {
+                    IntList members = cells.get(CellKey.pack(x, y, z));
+                    if (members == null) {
+                        continue;
+                    }
+
+                    for (int i = 0; i < members.size(); i++) {
+                        if (members.get(i) != id) {
+                            consumer.accept(members.get(i));
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    public int size() {
+        return count;
+    }
+
+    public void clear() {
+        cells.clear();
+        Arrays.fill(present, false);
+        count = 0;
+    }
+
+    private boolean isOwnerCell(int a, int b, int cellX, int cellY, int cellZ) {
+        int offsetA = a * 6;
+        int offsetB = b * 6;
+        return Math.max(bounds[offsetA], bounds[offsetB]) == cellX
+                && Math.max(bounds[offsetA + 1], bounds[offsetB + 1]) == cellY
+                && Math.max(bounds[offsetA + 2], bounds[offsetB + 2]) == cellZ;
+    }
+
+    private void link(int id) {
+        int offset = id * 6;
+        for (int x = bounds[offset]; x <= bounds[offset + 3]; x++) {
+            for (int y = bounds[offset + 1]; y <= bounds[offset + 4]; y++) {
+                for (int z = bounds[offset + 2]; z <= bounds[offset + 5]; z++) {
+                    long key = CellKey.pack(x, y, z);
+                    IntList members = cells.get(key);
+                    if (members == null) {
+                        members = new IntList(4);
+                        cells.put(key, members);
+                    }
+                    members.add(id);
+                }
+            }
+        }
+    }
+
+    private void unlink(int id) {
+        int offset = id * 6;
+        for (int x = bounds[offset]; x <= bounds[offset + 3]; x++) {
+            for (int y = bounds[offset + 1]; y <= bounds[offset + 4]; y++) {
+                for (int z = bounds[offset + 2]; z <= bounds[offset + 5]; z++) {
+                    long key = CellKey.pack(x, y, z);
+                    IntList members = cells.get(key);
+                    if (members != null && members.removeValue(id) && members.isEmpty()) {
+                        cells.remove(key);
+                    }
+                }
+            }
+        }
+    }
+
+    private void ensureCapacity(int id) {
+        if (id < present.length) {
+            return;
+        }
+
+        int capacity = Math.max(present.length * 2, id + 1);
+        present = Arrays.copyOf(present, capacity);
+        bounds = Arrays.copyOf(bounds, capacity * 6);
+    }
+
+    private double boundaryTime(double origin, double direction, int cell, int step) {
+        if (step > 0) {
+            return ((cell + 1) * cellSize - origin) / direction;
+        }
+        if (step < 0) {
+            return (cell * cellSize - origin) / direction;
+        }
+        return Double.POSITIVE_INFINITY;
+    }
+
+    private int toCell(double coordinate) {
+        return (int) Math.floor(coordinate / cellSize);
+    }
+
+    @FunctionalInterface
+    public interface PairConsumer {
+        void accept(int a, int b);
+    }
+
+    @FunctionalInterface
+    public interface RayVisitor {
+        double visit(int id);
+    }
+}
@@ -0,0 +1,22 @@
+package com.bruhdows.gravityblocks.physics;
+
+import lombok.Getter;
+
+@Getter
+public class StepStats {
+
+    long integrationNanos;
+    long worldCollisionNanos;
+    long broadphaseNanos;
+    long pairNanos;
+    long solverNanos;
+    long entityNanos;
+    int pairsTested;
+    int pairsColliding;
+    int contacts;
+    int entityContacts;
+    int awakeBodies;
+    int sleepingBodies;
+    int heldBodies;
+    int frozenBodies;
+}
@@ -0,0 +1,185 @@
+package com.bruhdows.gravityblocks.physics;
+
+public class SweptAabb {
+
+    public static final int HIT_X = 1;
+    public static final int HIT_Y = 1 << 1;
+    public static final int HIT_Z = 1 << 2;
+
+    private static final double EPSILON = 1.0E-6;
+    private static final int NO_AXIS = -1;
+
+    private final double[] delta = new double[3];
+    private final int[] nextLayer = new int[3];
+    private final double[] nextTime = new double[3];
+    private final double[] stepTime = new double[3];
+    private final int[] slabMin = new int[3];
+    private final int[] slabMax = new int[3];
+
+    private double hitTime;
+    private int hitAxis;
+    private long elapsedNanos;
+    private long voxelsProbed;
+
+    public int sweep(SolidityView solidity, double[] position, int offset, double size,
+                     double deltaX, double deltaY, double deltaZ) {
+        long start = System.nanoTime();
+        delta[0] = deltaX;
+        delta[1] = deltaY;
+        delta[2] = deltaZ;
+        int hits = 0;
+
+        for (int pass = 0; pass < 3; pass++) {
+            if (delta[0] == 0 && delta[1] == 0 && delta[2] == 0) {
+                break;
+            }
+
+            boolean hit = cast(solidity, position, offset, size);
+            for (int i = 0; i < 3; i++) {
+                position[offset + i] += delta[i] * hitTime;
+            }
+
+            if (!hit) {
+                break;
+            }
+
+            hits |= 1 << hitAxis;
+            for (int i = 0; i < 3; i++) {
+                delta[i] = i == hitAxis ? 0 : delta[i] * (1 - hitTime);
+            }
+        }
+
+        elapsedNanos += System.nanoTime() - start;
+        return hits;
+    }
+
+    int sweep(SolidityView solidity, double[] position, double[] size, Compound compound,
+              double deltaX, double deltaY, double deltaZ) {
+        long start = System.nanoTime();
+        delta[0] = deltaX;
+        delta[1] = deltaY;
+        delta[2] = deltaZ;
+        int hits = 0;
+
+        for (int pass = 0; pass < 3; pass++) {
+            if (delta[0] == 0 && delta[1] == 0 && delta[2] == 0) {
+                break;
+            }
+
+            double time = 1;
+            int axis = NO_AXIS;
+            for (int i = 0; i < 3 && time > 0; i++) {
+                if (delta[i] == 0) {
+                    continue;
+                }
+
+                for (int member : compound.faces[i * 2 + (delta[i] > 0 ? 1 : 0)]) {
+                    if (cast(solidity, position, member * 3, size[member]) && hitTime < time) {
+                        time = hitTime;
+                        axis = hitAxis;
+                        if (time == 0) {
+                            break;
+                        }
+                    }
+                }
+            }
+
+            for (int member : compound.members) {
+                for (int i = 0; i < 3; i++) {
+                    position[member * 3 + i] += delta[i] * time;
+                }
+            }
+
+            if (axis == NO_AXIS) {
+                break;
+            }
+
+            hits |= 1 << axis;
+            for (int i = 0; i < 3; i++) {
+                delta[i] = i == axis ? 0 : delta[i] * (1 - time);
+            }
+        }
+
+        elapsedNanos += System.nanoTime() - start;
+        return hits;
+    }
+
+    public long drainElapsedNanos() {
+        long elapsed = elapsedNanos;
+        elapsedNanos = 0;
+        return elapsed;
+    }
+
+    long getVoxelsProbed() {
+        return voxelsProbed;
+    }
+
+    private boolean cast(SolidityView solidity, double[] position, int offset, double size) {
+        for (int i = 0; i < 3; i++) {
+            double min = position[offset + i];
+            double max = min + size;
+
+            if (delta[i] > 0) {
+                int boundary = (int) Math.ceil(max - EPSILON);
+                nextLayer[i] = boundary;
+                nextTime[i] = Math.max(0, boundary - max) / delta[i];
+                stepTime[i] = 1 / delta[i];
+            } else if (delta[i] < 0) {
+                int boundary = (int) Math.floor(min + EPSILON);
+                nextLayer[i] = boundary - 1;
+                nextTime[i] = Math.max(0, min - boundary) / -delta[i];
+                stepTime[i] = 1 / -delta[i];
+            } else {
+                nextTime[i] = Double.POSITIVE_INFINITY;
+            }
+        }
+
+        while (true) {
+            int axis = nextTime[0] <= nextTime[1]
+                    ? (nextTime[0] <= nextTime[2] ? 0 : 2)
+                    : (nextTime[1] <= nextTime[2] ? 1 : 2);
+            double time = nextTime[axis];
+
+            if (time > 1) {
+                hitTime = 1;
+                hitAxis = NO_AXIS;
+                return false;
+            }
+
+            if (isSlabSolid(solidity, position, offset, size, axis, time)) {
+                hitTime = time;
+                hitAxis = axis;
+                return true;
+            }
+
+            nextLayer[axis] += delta[axis] > 0 ? 1 : -1;
+            nextTime[axis] += stepTime[axis];
+        }
+    }
+
+    private boolean isSlabSolid(SolidityView solidity, double[] position, int offset, double size, int axis, double time) {
+        for (int i = 0; i < 3; i++) {
+            if (i == axis) {
+                slabMin[i] = nextLayer[i];
+                slabMax[i] = nextLayer[i];
+            } else {
+                double low = position[offset + i] + delta[i] * time;
+                slabMin[i] = (int) Math.floor(low + EPSILON);
+                slabMax[i] = (int) Math.ceil(low + size - EPSILON) - 1;
+            }
+        }
+
+        for (int x = slabMin[0]; x <= slabMax[0]; x++) {
+            for (int y = slabMin[1]; y <= slabMax[1]; y++) {
+                for (int z = slabMin[2]; z <= slabMax[2]; z++) {
+                    voxelsProbed++;
+                    if (solidity.isSolid(x, y, z)) {
+                        return true;
+                    }
+                }
+            }
+        }
+
+        return false;
+    }
+}
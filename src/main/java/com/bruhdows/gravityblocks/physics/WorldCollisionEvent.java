@@ -0,0 +1,50 @@
+package com.bruhdows.gravityblocks.physics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+@Name("gravityblocks.WorldCollision")
+@Label("Gravity Block World Collision")
+@Description("Sweep of one gravity block or compound against world voxels during a physics step")
+@Category({"GravityBlocks", "Physics"})
+@StackTrace(false)
+@Threshold("100 us")
+final class WorldCollisionEvent extends jdk.jfr.Event {
+
+    static final EventType TYPE = EventType.getEventType(WorldCollisionEvent.class);
+
+    @Label("Block Id")
+    int blockId;
+
+    @Label("World")
+    String world;
+
+    @Label("Chunk X")
+    int chunkX;
+
+    @Label("Chunk Z")
+    int chunkZ;
+
+    @Label("Velocity X")
+    double velocityX;
+
+    @Label("Velocity Y")
+    double velocityY;
+
+    @Label("Velocity Z")
+    double velocityZ;
+
+    @Label("Members")
+    int members;
+
+    @Label("Substeps")
+    int substeps;
+
+    @Label("Voxels Probed")
+    long voxelsProbed;
+}
@@ -0,0 +1,13 @@
+package com.bruhdows.gravityblocks.render;
+
+import org.bukkit.Location;
+import org.bukkit.block.data.BlockData;
+
+public interface BlockRenderer {
+
+    BlockView create(Location location, BlockData blockData, double size);
+
+    void tick();
+
+    void shutdown();
+}
@@ -0,0 +1,18 @@
+package com.bruhdows.gravityblocks.render;
+
+public interface BlockView {
+
+    int getEntityId();
+
+    double getX();
+
+    double getY();
+
+    double getZ();
+
+    void setTeleportDuration(int ticks);
+
+    void moveTo(double x, double y, double z);
+
+    void remove();
+}
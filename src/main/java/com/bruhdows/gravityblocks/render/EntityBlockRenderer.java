@@ -0,0 +1,114 @@
+package com.bruhdows.gravityblocks.render;
+
+import org.bukkit.Location;
+import org.bukkit.block.data.BlockData;
+import org.bukkit.entity.BlockDisplay;
+import org.bukkit.entity.Display;
+import org.bukkit.util.Transformation;
+import org.joml.Quaternionf;
+import org.joml.Vector3f;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+public class EntityBlockRenderer implements BlockRenderer {
+
+    private static final int MAX_CACHED_SIZES = 16;
+    private static final Transformation DEFAULT_TRANSFORMATION = createTransformation(1.0f);
+    private static final Map<Float, Transformation> TRANSFORMATIONS = new ConcurrentHashMap<>();
+
+    private final boolean asyncTeleport;
+
+    public EntityBlockRenderer() {
+        this(false);
+    }
+
+    public EntityBlockRenderer(boolean asyncTeleport) {
+        this.asyncTeleport = asyncTeleport;
+    }
+
+    @Override
+    public BlockView create(Location location, BlockData blockData, double size) {
+        return new EntityView(location.getWorld().spawn(location, BlockDisplay.class, display -> {
+            display.setBlock(blockData);
+            display.setBrightness(new Display.Brightness(15, 15));
+            display.setPersistent(false);
+
+            display.setTransformation(transformation(size));
+
+            display.setInterpolationDuration(2);
+            display.setInterpolationDelay(-1);
+        }), asyncTeleport);
+    }
+
+    @Override
+    public void tick() {
+    }
+
+    @Override
+    public void shutdown() {
+    }
+
+    private static Transformation transformation(double size) {
+        float scale = (float) size;
+        if (scale == 1.0f) {
+            return DEFAULT_TRANSFORMATION;
+        }
+
+        Transformation cached = TRANSFORMATIONS.get(scale);
+        if (cached != null) {
+            return cached;
+        }
+        if (TRANSFORMATIONS.size() >= MAX_CACHED_SIZES) {
+            return createTransformation(scale);
+        }
+        return TRANSFORMATIONS.computeIfAbsent(scale, EntityBlockRenderer::createTransformation);
+    }
+
+    private static Transformation createTransformation(float scale) {
+        return new Transformation(new Vector3f(), new Quaternionf(), new Vector3f(scale, scale, scale), new Quaternionf());
+    }
+
+    private record EntityView(BlockDisplay display, boolean asyncTeleport) implements BlockView {
+
+        @Override
+        public int getEntityId() {
+            return display.getEntityId();
+        }
+
+        @Override
+        public double getX() {
+            return display.getX();
+        }
+
+        @Override
+        public double getY() {
+            return display.getY();
+        }
+
+        @Override
+        public double getZ() {
+            return display.getZ();
+        }
+
+        @Override
+        public void setTeleportDuration(int ticks) {
+            display.setTeleportDuration(ticks);
+        }
+
+        @Override
+        public void moveTo(double x, double y, double z) {
+            Location location = new Location(display.getWorld(), x, y, z);
+            if (asyncTeleport) {
+                display.teleportAsync(location);
+            } else {
+                display.teleport(location);
+            }
+        }
+
+        @Override
+        public void remove() {
+            display.remove();
+        }
+    }
+}
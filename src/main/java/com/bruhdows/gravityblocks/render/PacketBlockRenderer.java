@@ -0,0 +1,291 @@
+package com.bruhdows.gravityblocks.render;
+
+import org.bukkit.Bukkit;
+import org.bukkit.Chunk;
+import org.bukkit.Location;
+import org.bukkit.Server;
+import org.bukkit.World;
+import org.bukkit.block.data.BlockData;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.HandlerList;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerChangedWorldEvent;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerRespawnEvent;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.IntSupplier;
+
+public class PacketBlockRenderer implements BlockRenderer, Listener {
+
+    private final Server server;
+    private final PacketSink sink;
+    private final IntSupplier entityIds;
+    private final double viewDistanceSquared;
+    private final int viewChunks;
+    private final int updateInterval;
+    private final Map<UUID, Map<Long, List<VirtualView>>> chunks = new HashMap<>();
+    private final Map<UUID, Viewer> viewers = new HashMap<>();
+    private long tickCount;
+
+    public PacketBlockRenderer(Server server, PacketSink sink, double viewDistance, int updateInterval) {
+        this(server, sink, () -> Bukkit.getUnsafe().nextEntityId(), viewDistance, updateInterval);
+    }
+
+    public PacketBlockRenderer(Server server, PacketSink sink, IntSupplier entityIds, double viewDistance, int updateInterval) {
+        this.server = server;
+        this.sink = sink;
+        this.entityIds = entityIds;
+        this.viewDistanceSquared = viewDistance * viewDistance;
+        this.viewChunks = (int) Math.ceil(viewDistance / 16);
+        this.updateInterval = Math.max(1, updateInterval);
+    }
+
+    @Override
+    public BlockView create(Location location, BlockData blockData, double size) {
+        VirtualView view = new VirtualView(entityIds.getAsInt(), UUID.randomUUID(), location.getWorld(),
+                location.getX(), location.getY(), location.getZ(), blockData, (float) size);
+        index(view);
+        return view;
+    }
+
+    @Override
+    public void tick() {
+        if (tickCount++ % updateInterval != 0) {
+            return;
+        }
+
+        Iterator<Viewer> iterator = viewers.values().iterator();
+        while (iterator.hasNext()) {
+            Viewer viewer = iterator.next();
+            if (!viewer.player.isOnline()) {
+                for (VirtualView view : viewer.visible) {
+                    view.viewers.remove(viewer);
+                }
+                iterator.remove();
+            }
+        }
+
+        for (Player player : server.getOnlinePlayers()) {
+            updateViewer(viewers.computeIfAbsent(player.getUniqueId(), key -> new Viewer(player)));
+        }
+    }
+
+    @Override
+    public void shutdown() {
+        for (Viewer viewer : viewers.values()) {
+            if (viewer.player.isOnline()) {
+                for (VirtualView view : viewer.visible) {
+                    sink.destroy(viewer.player, view.entityId);
+                }
+            }
+        }
+        viewers.clear();
+        chunks.clear();
+        HandlerList.unregisterAll(this);
+    }
+
+    public void reset(Player player) {
+        Viewer viewer = viewers.remove(player.getUniqueId());
+        if (viewer == null) {
+            return;
+        }
+
+        for (VirtualView view : viewer.visible) {
+            view.viewers.remove(viewer);
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onJoin(PlayerJoinEvent event) {
+        reset(event.getPlayer());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onRespawn(PlayerRespawnEvent event) {
+        reset(event.getPlayer());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onChangedWorld(PlayerChangedWorldEvent event) {
+        reset(event.getPlayer());
+    }
+
+    private void updateViewer(Viewer viewer) {
+        Location location = viewer.player.getLocation();
+        World world = location.getWorld();
+        Set<VirtualView> inRange = viewer.inRange;
+        inRange.clear();
+
+        Map<Long, List<VirtualView>> worldChunks = chunks.get(world.getUID());
+        if (worldChunks != null) {
+            int centerX = location.getBlockX() >> 4;
+            int centerZ = location.getBlockZ() >> 4;
+            for (int chunkX = centerX - viewChunks; chunkX <= centerX + viewChunks; chunkX++) {
+                for (int chunkZ = centerZ - viewChunks; chunkZ <= centerZ + viewChunks; chunkZ++) {
+                    List<VirtualView> views = worldChunks.get(Chunk.getChunkKey(chunkX, chunkZ));
+                    if (views == null) {
+                        continue;
+                    }
+
+                    for (VirtualView view : views) {
+                        double dx = view.x - location.getX();
+                        double dy = view.y - location.getY();
+                        double dz = view.z - location.getZ();
+                        if (dx * dx + dy * dy + dz * dz <= viewDistanceSquared) {
+                            inRange.add(view);
+                        }
+                    }
+                }
+            }
+        }
+
+        Iterator<VirtualView> visible = viewer.visible.iterator();
+        while (visible.hasNext()) {
+            VirtualView view = visible.next();
+            if (!inRange.contains(view)) {
+                sink.destroy(viewer.player, view.entityId);
+                view.viewers.remove(viewer);
+                visible.remove();
+            }
+        }
+
+        for (VirtualView view : inRange) {
+            if (viewer.visible.add(view)) {
+                view.show(viewer);
+            }
+        }
+    }
+
+    private void index(VirtualView view) {
+        view.chunkKey = Chunk.getChunkKey((int) Math.floor(view.x) >> 4, (int) Math.floor(view.z) >> 4);
+        chunks.computeIfAbsent(view.world.getUID(), key -> new HashMap<>())
+                .computeIfAbsent(view.chunkKey, key -> new ArrayList<>())
+                .add(view);
+    }
+
+    private void unindex(VirtualView view) {
+        Map<Long, List<VirtualView>> worldChunks = chunks.get(view.world.getUID());
+        if (worldChunks == null) {
+            return;
+        }
+
+        List<VirtualView> views = worldChunks.get(view.chunkKey);
+        if (views != null && views.remove(view) && views.isEmpty()) {
+            worldChunks.remove(view.chunkKey);
+        }
+    }
+
+    private static final class Viewer {
+
+        private final Player player;
+        private final Set<VirtualView> visible = new HashSet<>();
+        private final Set<VirtualView> inRange = new HashSet<>();
+
+        private Viewer(Player player) {
+            this.player = player;
+        }
+    }
+
+    private final class VirtualView implements BlockView {
+
+        private final int entityId;
+        private final UUID uuid;
+        private final World world;
+        private final BlockData blockData;
+        private final float scale;
+        private final List<Viewer> viewers = new ArrayList<>();
+        private double x;
+        private double y;
+        private double z;
+        private int teleportDuration;
+        private long chunkKey;
+
+        private VirtualView(int entityId, UUID uuid, World world, double x, double y, double z, BlockData blockData, float scale) {
+            this.entityId = entityId;
+            this.uuid = uuid;
+            this.world = world;
+            this.x = x;
+            this.y = y;
+            this.z = z;
+            this.blockData = blockData;
+            this.scale = scale;
+        }
+
+        private void show(Viewer viewer) {
+            viewers.add(viewer);
+            sink.spawn(viewer.player, entityId, uuid, x, y, z);
+            sink.metadata(viewer.player, entityId, blockData, scale, teleportDuration);
+        }
+
+        @Override
+        public int getEntityId() {
+            return entityId;
+        }
+
+        @Override
+        public double getX() {
+            return x;
+        }
+
+        @Override
+        public double getY() {
+            return y;
+        }
+
+        @Override
+        public double getZ() {
+            return z;
+        }
+
+        @Override
+        public void setTeleportDuration(int ticks) {
+            if (teleportDuration == ticks) {
+                return;
+            }
+
+            teleportDuration = ticks;
+            for (Viewer viewer : viewers) {
+                sink.metadata(viewer.player, entityId, blockData, scale, teleportDuration);
+            }
+        }
+
+        @Override
+        public void moveTo(double x, double y, double z) {
+            this.x = x;
+            this.y = y;
+            this.z = z;
+
+            long key = Chunk.getChunkKey((int) Math.floor(x) >> 4, (int) Math.floor(z) >> 4);
+            if (key != chunkKey) {
+                unindex(this);
+                index(this);
+            }
+
+            for (Viewer viewer : viewers) {
+                sink.move(viewer.player, entityId, x, y, z);
+            }
+        }
+
+        @Override
+        public void remove() {
+            for (Viewer viewer : viewers) {
+                viewer.visible.remove(this);
+                if (viewer.player.isOnline()) {
+                    sink.destroy(viewer.player, entityId);
+                }
+            }
+            viewers.clear();
+            unindex(this);
+        }
+    }
+}
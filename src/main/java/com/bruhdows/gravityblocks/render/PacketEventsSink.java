@@ -0,0 +1,59 @@
+package com.bruhdows.gravityblocks.render;
+
+import com.github.retrooper.packetevents.PacketEvents;
+import com.github.retrooper.packetevents.manager.player.PlayerManager;
+import com.github.retrooper.packetevents.protocol.entity.data.EntityData;
+import com.github.retrooper.packetevents.protocol.entity.data.EntityDataTypes;
+import com.github.retrooper.packetevents.protocol.entity.type.EntityTypes;
+import com.github.retrooper.packetevents.util.Vector3d;
+import com.github.retrooper.packetevents.util.Vector3f;
+import com.github.retrooper.packetevents.wrapper.play.server.WrapperPlayServerDestroyEntities;
+import com.github.retrooper.packetevents.wrapper.play.server.WrapperPlayServerEntityMetadata;
+import com.github.retrooper.packetevents.wrapper.play.server.WrapperPlayServerEntityTeleport;
+import com.github.retrooper.packetevents.wrapper.play.server.WrapperPlayServerSpawnEntity;
+import io.github.retrooper.packetevents.util.SpigotConversionUtil;
+import org.bukkit.block.data.BlockData;
+import org.bukkit.entity.Player;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+public class PacketEventsSink implements PacketSink {
+
+    private static final int TELEPORT_DURATION_INDEX = 10;
+    private static final int SCALE_INDEX = 12;
+    private static final int BRIGHTNESS_INDEX = 16;
+    private static final int BLOCK_STATE_INDEX = 23;
+    private static final int FULL_BRIGHTNESS = 15 << 4 | 15 << 20;
+
+    private final PlayerManager players = PacketEvents.getAPI().getPlayerManager();
+
+    @Override
+    public void spawn(Player viewer, int entityId, UUID uuid, double x, double y, double z) {
+        players.sendPacket(viewer, new WrapperPlayServerSpawnEntity(entityId, Optional.of(uuid), EntityTypes.BLOCK_DISPLAY,
+                new Vector3d(x, y, z), 0, 0, 0, 0, Optional.empty()));
+    }
+
+    @Override
+    public void metadata(Player viewer, int entityId, BlockData blockData, float scale, int teleportDuration) {
+        List<EntityData<?>> data = List.of(
+                new EntityData<>(TELEPORT_DURATION_INDEX, EntityDataTypes.INT, teleportDuration),
+                new EntityData<>(SCALE_INDEX, EntityDataTypes.VECTOR3F, new Vector3f(scale, scale, scale)),
+                new EntityData<>(BRIGHTNESS_INDEX, EntityDataTypes.INT, FULL_BRIGHTNESS),
+                new EntityData<>(BLOCK_STATE_INDEX, EntityDataTypes.BLOCK_STATE,
+                        SpigotConversionUtil.fromBukkitBlockData(blockData).getGlobalId())
+        );
+        players.sendPacket(viewer, new WrapperPlayServerEntityMetadata(entityId, data));
+    }
+
+    @Override
+    public void move(Player viewer, int entityId, double x, double y, double z) {
+        players.sendPacket(viewer, new WrapperPlayServerEntityTeleport(entityId, new Vector3d(x, y, z), 0, 0, false));
+    }
+
+    @Override
+    public void destroy(Player viewer, int entityId) {
+        players.sendPacket(viewer, new WrapperPlayServerDestroyEntities(entityId));
+    }
+}
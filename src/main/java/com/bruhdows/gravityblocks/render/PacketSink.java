@@ -0,0 +1,17 @@
+package com.bruhdows.gravityblocks.render;
+
+import org.bukkit.block.data.BlockData;
+import org.bukkit.entity.Player;
+
+import java.util.UUID;
+
+public interface PacketSink {
+
+    void spawn(Player viewer, int entityId, UUID uuid, double x, double y, double z);
+
+    void metadata(Player viewer, int entityId, BlockData blockData, float scale, int teleportDuration);
+
+    void move(Player viewer, int entityId, double x, double y, double z);
+
+    void destroy(Player viewer, int entityId);
+}
@@ -0,0 +1,131 @@
+package com.bruhdows.gravityblocks.world;
+
+import com.bruhdows.gravityblocks.physics.EntityIndex;
+import org.bukkit.Chunk;
+import org.bukkit.GameMode;
+import org.bukkit.Server;
+import org.bukkit.World;
+import org.bukkit.entity.Entity;
+import org.bukkit.entity.LivingEntity;
+import org.bukkit.entity.Player;
+import org.bukkit.util.BoundingBox;
+import org.bukkit.util.Vector;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+public class ChunkEntityIndex {
+
+    private static final double MAX_PUSH = 2.0;
+
+    private final Server server;
+    private final boolean regionized;
+    private final double density;
+
+    public ChunkEntityIndex(Server server, boolean regionized, double density) {
+        this.server = server;
+        this.regionized = regionized;
+        this.density = density;
+    }
+
+    public Frame beginFrame() {
+        return new Frame();
+    }
+
+    private boolean collides(Entity entity) {
+        if (!(entity instanceof LivingEntity) || !entity.isValid()) {
+            return false;
+        }
+        return !(entity instanceof Player player) || player.getGameMode() != GameMode.SPECTATOR;
+    }
+
+    public class Frame {
+
+        private final Map<UUID, View> views = new HashMap<>();
+        private final Map<UUID, EntityIndex> indexes = new HashMap<>();
+        private int entityCount;
+
+        private Frame() {
+        }
+
+        public void require(World world, int minX, int minZ, int maxX, int maxZ) {
+            UUID worldId = world.getUID();
+            View view = views.computeIfAbsent(worldId, key -> new View());
+
+            for (int chunkX = minX >> 4; chunkX <= maxX >> 4; chunkX++) {
+                for (int chunkZ = minZ >> 4; chunkZ <= maxZ >> 4; chunkZ++) {
+                    if (!view.chunks.add(Chunk.getChunkKey(chunkX, chunkZ))
+                            || regionized && !server.isOwnedByCurrentRegion(world, chunkX, chunkZ)
+                            || !world.isChunkLoaded(chunkX, chunkZ)) {
+                        continue;
+                    }
+
+                    for (Entity entity : world.getChunkAt(chunkX, chunkZ).getEntities()) {
+                        if (collides(entity)) {
+                            add(worldId, view, entity);
+                        }
+                    }
+                }
+            }
+        }
+
+        public Map<UUID, EntityIndex> getIndexes() {
+            return indexes;
+        }
+
+        public int getEntityCount() {
+            return entityCount;
+        }
+
+        public int apply() {
+            int pushed = 0;
+            for (Map.Entry<UUID, View> entry : views.entrySet()) {
+                EntityIndex index = indexes.get(entry.getKey());
+                if (index == null) {
+                    continue;
+                }
+
+                List<Entity> entities = entry.getValue().entities;
+                for (int slot = 0; slot < index.size(); slot++) {
+                    Entity entity = entities.get(slot);
+                    if (!index.isPushed(slot) || !entity.isValid()
+                            || regionized && !server.isOwnedByCurrentRegion(entity)) {
+                        continue;
+                    }
+
+                    Vector push = new Vector(index.getPushX(slot), index.getPushY(slot), index.getPushZ(slot));
+                    double length = push.length();
+                    if (length > MAX_PUSH) {
+                        push.multiply(MAX_PUSH / length);
+                    }
+                    entity.setVelocity(entity.getVelocity().add(push));
+                    pushed++;
+                }
+            }
+            return pushed;
+        }
+
+        private void add(UUID worldId, View view, Entity entity) {
+            BoundingBox box = entity.getBoundingBox();
+            Vector velocity = entity.getVelocity();
+            double mass = Math.max(0.05, box.getWidthX() * box.getHeight() * box.getWidthZ() * density);
+            indexes.computeIfAbsent(worldId, key -> new EntityIndex()).add(
+                    box.getMinX(), box.getMinY(), box.getMinZ(), box.getMaxX(), box.getMaxY(), box.getMaxZ(),
+                    velocity.getX(), velocity.getY(), velocity.getZ(), mass
+            );
+            view.entities.add(entity);
+            entityCount++;
+        }
+    }
+
+    private static final class View {
+
+        private final Set<Long> chunks = new HashSet<>();
+        private final List<Entity> entities = new ArrayList<>();
+    }
+}
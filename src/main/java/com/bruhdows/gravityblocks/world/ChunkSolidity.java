@@ -0,0 +1,97 @@
+package com.bruhdows.gravityblocks.world;
+
+import org.bukkit.ChunkSnapshot;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+public class ChunkSolidity {
+
+    private static final long[] EMPTY_SECTION = new long[64];
+
+    private final ChunkSnapshot snapshot;
+    private final int minHeight;
+    private final int maxHeight;
+    private final long createdTick;
+    private final AtomicReferenceArray<long[]> sections;
+    private boolean stale;
+
+    public ChunkSolidity(ChunkSnapshot snapshot, int minHeight, int maxHeight, long createdTick) {
+        this.snapshot = snapshot;
+        this.minHeight = minHeight;
+        this.maxHeight = maxHeight;
+        this.createdTick = createdTick;
+        this.sections = new AtomicReferenceArray<>((maxHeight - minHeight + 15) >> 4);
+    }
+
+    public boolean isSolid(int localX, int y, int localZ) {
+        if (y < minHeight || y >= maxHeight) {
+            return false;
+        }
+
+        int sectionIndex = (y - minHeight) >> 4;
+        long[] bits = sections.get(sectionIndex);
+        if (bits == null) {
+            bits = buildSection(sectionIndex);
+            sections.compareAndSet(sectionIndex, null, bits);
+        }
+
+        int bit = (((y - minHeight) & 15) << 8) | (localZ << 4) | localX;
+        return (bits[bit >> 6] & (1L << bit)) != 0;
+    }
+
+    public boolean update(int localX, int y, int localZ, boolean solid) {
+        if (y < minHeight || y >= maxHeight) {
+            return false;
+        }
+
+        int sectionIndex = (y - minHeight) >> 4;
+        long[] bits = sections.get(sectionIndex);
+        if (bits == null) {
+            bits = buildSection(sectionIndex);
+            sections.compareAndSet(sectionIndex, null, bits);
+        }
+
+        int bit = (((y - minHeight) & 15) << 8) | (localZ << 4) | localX;
+        long mask = 1L << bit;
+        if (((bits[bit >> 6] & mask) != 0) == solid) {
+            return false;
+        }
+
+        long[] patched = bits.clone();
+        patched[bit >> 6] ^= mask;
+        sections.set(sectionIndex, patched);
+        return true;
+    }
+
+    public long getCreatedTick() {
+        return createdTick;
+    }
+
+    public boolean isStale() {
+        return stale;
+    }
+
+    public void markStale() {
+        stale = true;
+    }
+
+    private long[] buildSection(int sectionIndex) {
+        if (snapshot.isSectionEmpty(sectionIndex)) {
+            return EMPTY_SECTION;
+        }
+
+        long[] bits = new long[64];
+        int baseY = minHeight + (sectionIndex << 4);
+        for (int y = 0; y < 16; y++) {
+            for (int z = 0; z < 16; z++) {
+                for (int x = 0; x < 16; x++) {
+                    if (snapshot.getBlockType(x, baseY + y, z).isSolid()) {
+                        int bit = (y << 8) | (z << 4) | x;
+                        bits[bit >> 6] |= 1L << bit;
+                    }
+                }
+            }
+        }
+        return bits;
+    }
+}
@@ -0,0 +1,144 @@
+package com.bruhdows.gravityblocks.world;
+
+import com.bruhdows.gravityblocks.physics.LongObjectMap;
+import com.bruhdows.gravityblocks.physics.SolidityView;
+import org.bukkit.Chunk;
+import org.bukkit.Server;
+import org.bukkit.World;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+public class ChunkSolidityCache {
+
+    private static final long MAX_SNAPSHOT_AGE_TICKS = 1200;
+
+    private final Server server;
+    private final boolean regionized;
+    private final Map<UUID, LongObjectMap<ChunkSolidity>> chunks = new HashMap<>();
+    private long currentTick;
+
+    public ChunkSolidityCache(Server server, boolean regionized) {
+        this.server = server;
+        this.regionized = regionized;
+    }
+
+    public Frame beginFrame() {
+        currentTick++;
+        return new Frame();
+    }
+
+    public boolean invalidate(World world, int chunkX, int chunkZ) {
+        LongObjectMap<ChunkSolidity> worldChunks = chunks.get(world.getUID());
+        if (worldChunks == null) {
+            return false;
+        }
+
+        ChunkSolidity solidity = worldChunks.get(Chunk.getChunkKey(chunkX, chunkZ));
+        if (solidity == null) {
+            return false;
+        }
+
+        solidity.markStale();
+        return true;
+    }
+
+    public void evict(World world, int chunkX, int chunkZ) {
+        LongObjectMap<ChunkSolidity> worldChunks = chunks.get(world.getUID());
+        if (worldChunks != null) {
+            worldChunks.remove(Chunk.getChunkKey(chunkX, chunkZ));
+        }
+    }
+
+    public boolean invalidateBlock(World world, int x, int z) {
+        return invalidate(world, x >> 4, z >> 4);
+    }
+
+    public boolean updateBlock(World world, int x, int y, int z, boolean solid) {
+        LongObjectMap<ChunkSolidity> worldChunks = chunks.get(world.getUID());
+        if (worldChunks == null) {
+            return false;
+        }
+
+        ChunkSolidity solidity = worldChunks.get(Chunk.getChunkKey(x >> 4, z >> 4));
+        return solidity != null && !solidity.isStale() && solidity.update(x & 15, y, z & 15, solid);
+    }
+
+    public void unloadWorld(World world) {
+        chunks.remove(world.getUID());
+    }
+
+    public void clear() {
+        chunks.clear();
+    }
+
+    private ChunkSolidity getOrCreate(World world, LongObjectMap<ChunkSolidity> worldChunks, int chunkX, int chunkZ) {
+        long key = Chunk.getChunkKey(chunkX, chunkZ);
+        ChunkSolidity solidity = worldChunks.get(key);
+        if (solidity != null && !solidity.isStale() && currentTick - solidity.getCreatedTick() < MAX_SNAPSHOT_AGE_TICKS) {
+            return solidity;
+        }
+
+        if (regionized && !server.isOwnedByCurrentRegion(world, chunkX, chunkZ)) {
+            return solidity != null && !solidity.isStale() ? solidity : null;
+        }
+
+        if (!world.isChunkLoaded(chunkX, chunkZ)) {
+            worldChunks.remove(key);
+            return null;
+        }
+
+        solidity = new ChunkSolidity(
+                world.getChunkAt(chunkX, chunkZ).getChunkSnapshot(false, false, false),
+                world.getMinHeight(),
+                world.getMaxHeight(),
+                currentTick
+        );
+        worldChunks.put(key, solidity);
+        return solidity;
+    }
+
+    public class Frame {
+
+        private final Map<UUID, View> views = new HashMap<>();
+
+        private Frame() {
+        }
+
+        public void require(World world, int minX, int minZ, int maxX, int maxZ) {
+            UUID worldId = world.getUID();
+            View view = views.computeIfAbsent(worldId, key -> new View());
+            LongObjectMap<ChunkSolidity> worldChunks = chunks.computeIfAbsent(worldId, key -> new LongObjectMap<>());
+
+            for (int chunkX = minX >> 4; chunkX <= maxX >> 4; chunkX++) {
+                for (int chunkZ = minZ >> 4; chunkZ <= maxZ >> 4; chunkZ++) {
+                    long key = Chunk.getChunkKey(chunkX, chunkZ);
+                    if (view.chunks.get(key) != null) {
+                        continue;
+                    }
+
+                    ChunkSolidity solidity = getOrCreate(world, worldChunks, chunkX, chunkZ);
+                    if (solidity != null) {
+                        view.chunks.put(key, solidity);
+                    }
+                }
+            }
+        }
+
+        public Map<UUID, View> getViews() {
+            return views;
+        }
+    }
+
+    public static class View implements SolidityView {
+
+        private final LongObjectMap<ChunkSolidity> chunks = new LongObjectMap<>();
+
+        @Override
+        public boolean isSolid(int x, int y, int z) {
+            ChunkSolidity solidity = chunks.get(Chunk.getChunkKey(x >> 4, z >> 4));
+            return solidity == null || solidity.isSolid(x & 15, y, z & 15);
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.bruhdows.gravityblocks.physics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class LongIntMapTest {
+
+    @Test
+    void matchesHashMap() {
+        Random random = new Random(5);
+        LongIntMap map = new LongIntMap(4);
+        Map<Long, Integer> expected = new HashMap<>();
+        for (int i = 0; i < 100_000; i++) {
+            long key = (long) random.nextInt(5000) << 32 | random.nextInt(3);
+            if (random.nextBoolean()) {
+                expected.put(key, i);
+                map.put(key, i);
+            } else {
+                assertEquals((int) expected.getOrDefault(key, -1), map.get(key, -1));
+            }
+            assertEquals(expected.size(), map.size());
+        }
+    }
+
+    @Test
+    void clearForgetsEntries() {
+        LongIntMap map = new LongIntMap(4);
+        for (int i = 0; i < 100; i++) {
+            map.put(i * 31L, i);
+        }
+        map.clear();
+
+        assertEquals(0, map.size());
+        assertEquals(-1, map.get(31L, -1));
+        map.put(31L, 7);
+        assertEquals(7, map.get(31L, -1));
+    }
+}
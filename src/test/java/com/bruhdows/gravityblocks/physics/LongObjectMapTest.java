@@ -0,0 +1,51 @@
+package com.bruhdows.gravityblocks.physics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LongObjectMapTest {
+
+    @Test
+    void matchesHashMap() {
+        Random random = new Random(3);
+        LongObjectMap<Integer> map = new LongObjectMap<>();
+        Map<Long, Integer> expected = new HashMap<>();
+        for (int i = 0; i < 200_000; i++) {
+            long key = (long) (random.nextInt(2000) - 1000) << 38 | random.nextInt(4);
+            switch (random.nextInt(3)) {
+                case 0 -> assertEquals(expected.put(key, i), map.put(key, i));
+                case 1 -> assertEquals(expected.remove(key), map.remove(key));
+                default -> assertEquals(expected.get(key), map.get(key));
+            }
+            assertEquals(expected.size(), map.size());
+        }
+
+        int found = 0;
+        for (int slot = 0; slot < map.slots(); slot++) {
+            if (map.valueAt(slot) != null) {
+                assertEquals(expected.get(map.keyAt(slot)), map.valueAt(slot));
+                found++;
+            }
+        }
+        assertEquals(expected.size(), found);
+    }
+
+    @Test
+    void clearEmptiesMap() {
+        LongObjectMap<String> map = new LongObjectMap<>(4);
+        for (long key = -50; key < 50; key++) {
+            map.put(key, "value");
+        }
+
+        map.clear();
+        assertTrue(map.isEmpty());
+        assertNull(map.get(0));
+    }
+}
@@ -0,0 +1,127 @@
+package com.bruhdows.gravityblocks.physics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SimulationTest {
+
+    private static final UUID WORLD = new UUID(0, 0);
+    private static final SolidityView FLOOR = (x, y, z) -> y < 0;
+
+    @Test
+    void sameInputGivesSameState() {
+        assertEquals(runPile(1), runPile(1));
+        assertEquals(runPile(1), runPile(4));
+    }
+
+    @Test
+    void towerSettlesInPlace() {
+        PhysicsEngine engine = new PhysicsEngine(1);
+        try {
+            Simulation simulation = simulation(engine);
+            int height = 6;
+            int[] ids = new int[height];
+            for (int i = 0; i < height; i++) {
+                ids[i] = simulation.spawn(WORLD, 2, 0.2 + i * 1.1, 2, 1.0);
+            }
+            simulation.advance(10);
+
+            BodyStore store = simulation.getStore();
+            double[] settled = new double[height];
+            for (int i = 0; i < height; i++) {
+                settled[i] = store.getY(ids[i]);
+            }
+            simulation.advance(10);
+
+            assertEquals(0, store.getY(ids[0]), 1e-6);
+            for (int i = 0; i < height; i++) {
+                assertEquals(2, store.getX(ids[i]), 1e-6, "x of block " + i);
+                assertEquals(2, store.getZ(ids[i]), 1e-6, "z of block " + i);
+                assertEquals(settled[i], store.getY(ids[i]), 1e-9, "block " + i + " kept moving");
+                assertTrue(store.isSleeping(ids[i]), "block " + i + " is still awake");
+                if (i > 0) {
+                    double gap = store.getY(ids[i]) - store.getY(ids[i - 1]);
+                    assertTrue(gap > 0.95 && gap <= 1.0, "block " + i + " rests " + gap + " above the one below");
+                }
+            }
+        } finally {
+            engine.shutdown();
+        }
+    }
+
+    @Test
+    void compoundKeepsMemberMasses() {
+        PhysicsEngine engine = new PhysicsEngine(1);
+        try {
+            Simulation simulation = simulation(engine);
+            int light = simulation.spawn(WORLD, 0, 4, 0, 1.0, 1.0);
+            int heavy = simulation.spawn(WORLD, 1, 4, 0, 1.0, 3.0);
+            int large = simulation.spawn(WORLD, 2, 4, 0, 2.0, 0.5);
+            int root = simulation.join(light, heavy, large);
+            simulation.advance(2);
+
+            BodyStore store = simulation.getStore();
+            assertEquals(8.0, store.getMass(root), 1e-9);
+            assertEquals(8.0, store.getMass(heavy), 1e-9);
+            assertEquals(1.0, store.getBodyMass(light), 1e-9);
+            assertEquals(3.0, store.getBodyMass(heavy), 1e-9);
+            assertEquals(4.0, store.getBodyMass(large), 1e-9);
+        } finally {
+            engine.shutdown();
+        }
+    }
+
+    @Test
+    void fallingBodyLandsOnFloor() {
+        PhysicsEngine engine = new PhysicsEngine(1);
+        try {
+            Simulation simulation = simulation(engine);
+            int id = simulation.spawn(WORLD, 0.5, 30, 0.5, 1.0);
+            simulation.advance(15);
+
+            BodyStore store = simulation.getStore();
+            assertEquals(0, store.getY(id), 0.05);
+            assertTrue(store.isOnGround(id));
+        } finally {
+            engine.shutdown();
+        }
+    }
+
+    private static Simulation simulation(PhysicsEngine engine) {
+        Simulation simulation = new Simulation(engine);
+        simulation.setSolidity(WORLD, FLOOR);
+        return simulation;
+    }
+
+    private static long runPile(int parallelism) {
+        PhysicsEngine engine = new PhysicsEngine(parallelism);
+        try {
+            Simulation simulation = simulation(engine);
+            Random random = new Random(7);
+            for (int i = 0; i < 400; i++) {
+                int id = simulation.spawn(WORLD, random.nextDouble() * 12, 1 + random.nextDouble() * 20,
+                        random.nextDouble() * 12, 0.5 + random.nextDouble(), 0.5 + random.nextDouble() * 2);
+                simulation.getStore().setVelocity(id, random.nextGaussian() * 0.3, 0, random.nextGaussian() * 0.3);
+            }
+            simulation.advance(5);
+
+            BodyStore store = simulation.getStore();
+            long hash = 17;
+            for (int index = 0; index < store.size(); index++) {
+                int id = store.idAt(index);
+                hash = hash * 31 + Double.doubleToLongBits(store.getX(id));
+                hash = hash * 31 + Double.doubleToLongBits(store.getY(id));
+                hash = hash * 31 + Double.doubleToLongBits(store.getZ(id));
+                hash = hash * 31 + Double.doubleToLongBits(store.getVelocityY(id));
+            }
+            return hash;
+        } finally {
+            engine.shutdown();
+        }
+    }
+}
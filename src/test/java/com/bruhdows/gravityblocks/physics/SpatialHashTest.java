@@ -0,0 +1,125 @@
+package com.bruhdows.gravityblocks.physics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SpatialHashTest {
+
+    private static final int BOXES = 400;
+    private static final double MAX_DISTANCE = 40.0;
+
+    private final double[][] boxes = new double[BOXES][];
+    private final SpatialHash grid = new SpatialHash(2.0);
+    private final double[] ray = new double[6];
+    private double closest;
+
+    private void populate(long seed) {
+        Random random = new Random(seed);
+        for (int id = 0; id < BOXES; id++) {
+            double size = 0.3 + random.nextDouble() * 3;
+            double x = random.nextDouble() * 40 - 20;
+            double y = random.nextDouble() * 40 - 20;
+            double z = random.nextDouble() * 40 - 20;
+            boxes[id] = new double[]{x, y, z, x + size, y + size, z + size};
+            grid.update(id, x, y, z, x + size, y + size, z + size);
+        }
+    }
+
+    @Test
+    void raycastMatchesBruteForce() {
+        populate(1);
+        Random random = new Random(2);
+        for (int i = 0; i < 2000; i++) {
+            double directionX = random.nextGaussian();
+            double directionY = random.nextGaussian();
+            double directionZ = random.nextGaussian();
+            double length = Math.sqrt(directionX * directionX + directionY * directionY + directionZ * directionZ);
+            ray[0] = random.nextDouble() * 40 - 20;
+            ray[1] = random.nextDouble() * 40 - 20;
+            ray[2] = random.nextDouble() * 40 - 20;
+            ray[3] = i % 10 == 0 ? 0 : directionX / length;
+            ray[4] = directionY / length;
+            ray[5] = directionZ / length;
+
+            double expected = MAX_DISTANCE;
+            for (int id = 0; id < BOXES; id++) {
+                expected = Math.min(expected, hit(id, expected));
+            }
+
+            closest = MAX_DISTANCE;
+            grid.raycast(ray[0], ray[1], ray[2], ray[3], ray[4], ray[5], MAX_DISTANCE, id -> closest = Math.min(closest, hit(id, closest)));
+            assertEquals(expected, closest, 1e-9, "ray " + i);
+        }
+    }
+
+    @Test
+    void forEachPairReportsEveryOverlapOnce() {
+        populate(3);
+        Set<Long> pairs = new HashSet<>();
+        grid.forEachPair((a, b) -> assertTrue(pairs.add(pairKey(a, b)), "duplicate pair " + a + ", " + b));
+
+        for (int a = 0; a < BOXES; a++) {
+            for (int b = a + 1; b < BOXES; b++) {
+                if (overlaps(boxes[a], boxes[b])) {
+                    assertTrue(pairs.contains(pairKey(a, b)), "missing pair " + a + ", " + b);
+                }
+            }
+        }
+    }
+
+    @Test
+    void removedBoxesAreNotReported() {
+        populate(4);
+        for (int id = 0; id < BOXES; id += 2) {
+            grid.remove(id);
+        }
+
+        grid.forEachPair((a, b) -> assertTrue(a % 2 == 1 && b % 2 == 1, "removed box in pair " + a + ", " + b));
+        assertEquals(BOXES / 2, grid.size());
+    }
+
+    private double hit(int id, double limit) {
+        double near = 0;
+        double far = limit;
+        for (int axis = 0; axis < 3; axis++) {
+            double origin = ray[axis];
+            double direction = ray[3 + axis];
+            double min = boxes[id][axis];
+            double max = boxes[id][axis + 3];
+            if (direction == 0) {
+                if (origin < min || origin > max) {
+                    return limit;
+                }
+                continue;
+            }
+
+            double t1 = (min - origin) / direction;
+            double t2 = (max - origin) / direction;
+            near = Math.max(near, Math.min(t1, t2));
+            far = Math.min(far, Math.max(t1, t2));
+            if (near > far) {
+                return limit;
+            }
+        }
+        return near;
+    }
+
+    private static boolean overlaps(double[] a, double[] b) {
+        for (int axis = 0; axis < 3; axis++) {
+            if (a[axis] >= b[axis + 3] || b[axis] >= a[axis + 3]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static long pairKey(int a, int b) {
+        return (long) Math.min(a, b) * BOXES + Math.max(a, b);
+    }
+}
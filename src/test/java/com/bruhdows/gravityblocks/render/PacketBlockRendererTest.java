@@ -0,0 +1,156 @@
+package com.bruhdows.gravityblocks.render;
+
+import org.bukkit.Location;
+import org.bukkit.Server;
+import org.bukkit.World;
+import org.bukkit.block.data.BlockData;
+import org.bukkit.entity.Player;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class PacketBlockRendererTest {
+
+    private final List<Player> online = new ArrayList<>();
+    private final RecordingSink sink = new RecordingSink();
+    private final World world = world();
+    private final BlockData blockData = proxy(BlockData.class, (name, args) -> null);
+    private PacketBlockRenderer renderer;
+    private TestPlayer player;
+
+    @BeforeEach
+    void setUp() {
+        AtomicInteger entityIds = new AtomicInteger(100);
+        Server server = proxy(Server.class, (name, args) -> name.equals("getOnlinePlayers") ? online : null);
+        renderer = new PacketBlockRenderer(server, sink, entityIds::incrementAndGet, 32, 1);
+        player = new TestPlayer(new Location(world, 0, 64, 0));
+        online.add(player.handle);
+    }
+
+    @Test
+    void spawnsMovesAndDestroysInOrder() {
+        BlockView view = renderer.create(new Location(world, 4, 64, 4), blockData, 1);
+        renderer.tick();
+        view.moveTo(5, 64, 4);
+        view.setTeleportDuration(2);
+        view.remove();
+        renderer.tick();
+
+        assertEquals(List.of("spawn 101", "metadata 101", "move 101", "metadata 101", "destroy 101"), sink.packets);
+    }
+
+    @Test
+    void destroysViewsThatLeaveRange() {
+        renderer.create(new Location(world, 4, 64, 4), blockData, 1);
+        renderer.tick();
+        player.location = new Location(world, 200, 64, 200);
+        renderer.tick();
+        renderer.tick();
+
+        assertEquals(List.of("spawn 101", "metadata 101", "destroy 101"), sink.packets);
+    }
+
+    @Test
+    void crossesChunksWithoutRespawning() {
+        BlockView view = renderer.create(new Location(world, 15, 64, 0), blockData, 1);
+        renderer.tick();
+        view.moveTo(17, 64, 0);
+        renderer.tick();
+
+        assertEquals(List.of("spawn 101", "metadata 101", "move 101"), sink.packets);
+    }
+
+    @Test
+    void resendsViewsAfterReset() {
+        BlockView view = renderer.create(new Location(world, 4, 64, 4), blockData, 1);
+        renderer.tick();
+        renderer.reset(player.handle);
+        view.moveTo(5, 64, 4);
+        renderer.tick();
+
+        assertEquals(List.of("spawn 101", "metadata 101", "spawn 101", "metadata 101"), sink.packets);
+    }
+
+    @Test
+    void forgetsViewersThatGoOffline() {
+        BlockView view = renderer.create(new Location(world, 4, 64, 4), blockData, 1);
+        renderer.tick();
+        player.online = false;
+        online.clear();
+        renderer.tick();
+        view.moveTo(5, 64, 4);
+        view.remove();
+
+        assertEquals(List.of("spawn 101", "metadata 101"), sink.packets);
+    }
+
+    private static World world() {
+        UUID uid = UUID.randomUUID();
+        return proxy(World.class, (name, args) -> name.equals("getUID") ? uid : null);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, Handler handler) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (self, method, args) -> switch (method.getName()) {
+            case "hashCode" -> System.identityHashCode(self);
+            case "equals" -> self == args[0];
+            case "toString" -> type.getSimpleName();
+            default -> handler.invoke(method.getName(), args);
+        });
+    }
+
+    private interface Handler {
+
+        Object invoke(String name, Object[] args);
+    }
+
+    private static final class TestPlayer {
+
+        private final UUID uuid = UUID.randomUUID();
+        private final Player handle;
+        private Location location;
+        private boolean online = true;
+
+        private TestPlayer(Location location) {
+            this.location = location;
+            this.handle = proxy(Player.class, (name, args) -> switch (name) {
+                case "getUniqueId" -> uuid;
+                case "getLocation" -> this.location.clone();
+                case "isOnline" -> online;
+                default -> null;
+            });
+        }
+    }
+
+    private static final class RecordingSink implements PacketSink {
+
+        private final List<String> packets = new ArrayList<>();
+
+        @Override
+        public void spawn(Player viewer, int entityId, UUID uuid, double x, double y, double z) {
+            packets.add("spawn " + entityId);
+        }
+
+        @Override
+        public void metadata(Player viewer, int entityId, BlockData blockData, float scale, int teleportDuration) {
+            packets.add("metadata " + entityId);
+        }
+
+        @Override
+        public void move(Player viewer, int entityId, double x, double y, double z) {
+            packets.add("move " + entityId);
+        }
+
+        @Override
+        public void destroy(Player viewer, int entityId) {
+            packets.add("destroy " + entityId);
+        }
+    }
+}